@@ -2,7 +2,9 @@ package com.murilodias03.bookstore.config;
 
 import com.murilodias03.bookstore.security.jwt.JwtTokenFilter;
 import com.murilodias03.bookstore.security.jwt.JwtTokenProvider;
+import com.murilodias03.bookstore.security.jwt.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,22 +20,29 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @EnableWebSecurity
 @Configuration
 public class SecurityConfig {
 
+    // Stored hashes without an id, and those tagged {pbkdf2}, were created with this count
+    private static final int LEGACY_PBKDF2_ITERATIONS = 185000;
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
-    public SecurityConfig(JwtTokenProvider tokenProvider) {
+    private final VerifiedTokenCache tokenCache;
+
+    public SecurityConfig(JwtTokenProvider tokenProvider, VerifiedTokenCache tokenCache) {
         this.tokenProvider = tokenProvider;
+        this.tokenCache = tokenCache;
     }
 
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        JwtTokenFilter filter = new JwtTokenFilter(tokenProvider);
+        JwtTokenFilter filter = new JwtTokenFilter(tokenProvider, tokenCache);
         return http
                 .httpBasic(AbstractHttpConfigurer::disable)
                 .csrf(AbstractHttpConfigurer::disable)
@@ -57,19 +66,35 @@ public class SecurityConfig {
     }
 
     @Bean
-    PasswordEncoder passwordEncoder() {
-        PasswordEncoder pbkdf2Encoder = new Pbkdf2PasswordEncoder(
-                "", 8,
-                185000, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    PasswordEncoder passwordEncoder(@Value("${security.password.pbkdf2.iterations:185000}") int iterations,
+                                    @Value("${security.password.pbkdf2.previous-iterations:}") List<Integer> previousIterations) {
+        PasswordEncoder legacyEncoder = pbkdf2Encoder(LEGACY_PBKDF2_ITERATIONS);
 
+        // Each count gets its own id, so hashes from earlier settings still match and are
+        // rehashed with the current count on the next successful login
         Map<String, PasswordEncoder> encoders = new HashMap<>();
-        encoders.put("pbkdf2", pbkdf2Encoder);
-        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
+        encoders.put("pbkdf2", legacyEncoder);
+        for (int previous : previousIterations) {
+            encoders.put(pbkdf2Id(previous), pbkdf2Encoder(previous));
+        }
+        String idForEncode = pbkdf2Id(iterations);
+        encoders.putIfAbsent(idForEncode, pbkdf2Encoder(iterations));
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(idForEncode, encoders);
 
-        passwordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2Encoder);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(legacyEncoder);
         return passwordEncoder;
     }
 
+    private static PasswordEncoder pbkdf2Encoder(int iterations) {
+        return new Pbkdf2PasswordEncoder(
+                "", 8,
+                iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    private static String pbkdf2Id(int iterations) {
+        return iterations == LEGACY_PBKDF2_ITERATIONS ? "pbkdf2" : "pbkdf2-" + iterations;
+    }
+
     @Bean
     AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
         return configuration.getAuthenticationManager();
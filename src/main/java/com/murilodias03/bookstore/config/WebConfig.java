@@ -1,6 +1,10 @@
 package com.murilodias03.bookstore.config;
 
+import com.murilodias03.bookstore.file.compression.ResponseCompressionFilter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
@@ -23,6 +27,16 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true);
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "compression.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(
+            @Value("${compression.min-response-size:2048}") long minResponseSize) {
+        // Downloads negotiate their own encoding in FileDownloadService so ranges and sendfile keep working
+        var registration = new FilterRegistrationBean<>(new ResponseCompressionFilter(minResponseSize));
+        registration.addUrlPatterns("/person/*", "/books/*");
+        return registration;
+    }
+
     @Override
     public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
 
@@ -9,6 +9,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController implements AuthControllerDocs {
@@ -20,12 +22,12 @@ public class AuthController implements AuthControllerDocs {
     }
 
     @PostMapping(value = "/signin")
-    public ResponseEntity<?> signIn(@RequestBody AccountCredentialsDTO credentials) {
-        if (credentialsIsInvalid(credentials)) return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
-        var token = authService.singIn(credentials);
-
-        if (token == null) ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid token request!");
-        return token;
+    public CompletableFuture<ResponseEntity<?>> signIn(@RequestBody AccountCredentialsDTO credentials) {
+        if (credentialsIsInvalid(credentials)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!"));
+        }
+        // The servlet thread is released while the password is checked on the sign-in pool
+        return authService.singIn(credentials).thenApply(token -> token);
     }
 
     @PutMapping(value = "/refresh/{username}")
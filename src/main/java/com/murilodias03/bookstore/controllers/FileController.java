@@ -2,22 +2,28 @@ package com.murilodias03.bookstore.controllers;
 
 import com.murilodias03.bookstore.controllers.docs.FileControllerDocs;
 import com.murilodias03.bookstore.data.dto.UploadFileResponseDTO;
+import com.murilodias03.bookstore.data.dto.UploadPartDTO;
+import com.murilodias03.bookstore.data.dto.UploadSessionDTO;
+import com.murilodias03.bookstore.services.ChunkedUploadService;
+import com.murilodias03.bookstore.services.FileBlobStore;
+import com.murilodias03.bookstore.services.FileDownloadService;
 import com.murilodias03.bookstore.services.FileStorageService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @RestController
 @RequestMapping("/files")
@@ -27,51 +33,100 @@ public class FileController implements FileControllerDocs {
     private static final Logger logger = LoggerFactory.getLogger(FileController.class);
 
     private final FileStorageService fileStorageService;
+    private final FileDownloadService fileDownloadService;
+    private final ChunkedUploadService chunkedUploadService;
 
-    public FileController(FileStorageService fileStorageService) {
+    public FileController(FileStorageService fileStorageService,
+                          FileDownloadService fileDownloadService,
+                          ChunkedUploadService chunkedUploadService) {
         this.fileStorageService = fileStorageService;
+        this.fileDownloadService = fileDownloadService;
+        this.chunkedUploadService = chunkedUploadService;
     }
 
     @PostMapping("/uploadFile")
     @Override
     public UploadFileResponseDTO uploadFile(@RequestParam MultipartFile file) {
-        var fileName = fileStorageService.storeFile(file);
-        var fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
-                .path("/files/downloadFile/")
-                .path(fileName)
-                .toUriString();
+        return toResponse(fileStorageService.store(file), file.getContentType());
+    }
+
+    @PutMapping("/upload/{fileName:.+}")
+    @Override
+    public UploadFileResponseDTO uploadFileStream(@PathVariable String fileName,
+                                                 HttpServletRequest request) throws IOException {
+        // The body is written straight to the upload directory, no multipart parsing or container spooling
+        var stored = fileStorageService.store(request.getInputStream(), StringUtils.cleanPath(fileName));
+        return toResponse(stored, request.getContentType());
+    }
+
+    @PostMapping("/uploads")
+    @Override
+    public ResponseEntity<UploadSessionDTO> initiateUpload(@RequestParam String fileName) {
+        UploadSessionDTO session = chunkedUploadService.initiate(fileName);
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(session.getId()).toUri())
+                .body(session);
+    }
+
+    @PutMapping("/uploads/{id}/parts/{partNumber}")
+    @Override
+    public UploadPartDTO uploadPart(@PathVariable String id,
+                                    @PathVariable int partNumber,
+                                    HttpServletRequest request) throws IOException {
+        return chunkedUploadService.uploadPart(id, partNumber, request.getInputStream());
+    }
 
-        return new UploadFileResponseDTO(fileName, fileDownloadUri, file.getContentType(), file.getSize());
+    @GetMapping("/uploads/{id}")
+    @Override
+    public UploadSessionDTO findUpload(@PathVariable String id) {
+        return chunkedUploadService.findById(id);
+    }
+
+    @PostMapping("/uploads/{id}/complete")
+    @Override
+    public UploadFileResponseDTO completeUpload(@PathVariable String id) {
+        return toResponse(chunkedUploadService.complete(id), null);
+    }
+
+    @DeleteMapping("/uploads/{id}")
+    @Override
+    public ResponseEntity<?> abortUpload(@PathVariable String id) {
+        chunkedUploadService.abort(id);
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/uploadMultipleFiles")
     @Override
     public List<UploadFileResponseDTO> uploadMultipleFile(@RequestParam MultipartFile[] files) {
-        return Arrays.asList(files)
-                .stream()
-                .map(this::uploadFile)
+        List<MultipartFile> parts = Arrays.asList(files);
+        List<FileStorageService.StoredFile> stored = fileStorageService.storeAll(parts);
+        return IntStream.range(0, parts.size())
+                .mapToObj(i -> toResponse(stored.get(i), parts.get(i).getContentType()))
                 .collect(Collectors.toList());
     }
 
     @GetMapping("/downloadFile/{fileName:.+}")
     @Override
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName,
-                                                 HttpServletRequest request) {
-        Resource resource = fileStorageService.loadFileAsResource(fileName);
+    public void downloadFile(@PathVariable String fileName,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        FileBlobStore.StoredBlob file = fileStorageService.loadFile(fileName);
         String contentType = null;
         try {
-            contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
+            contentType = request.getServletContext().getMimeType(fileName);
         } catch (Exception e) {
             logger.error("Could not determine file type!");
         }
 
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
+        fileDownloadService.send(file, StringUtils.getFilename(fileName), contentType, request, response);
+    }
+
+    private UploadFileResponseDTO toResponse(FileStorageService.StoredFile stored, String contentType) {
+        var fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/files/downloadFile/")
+                .path(stored.fileName())
+                .toUriString();
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+        return new UploadFileResponseDTO(stored.fileName(), fileDownloadUri, contentType, stored.size(), stored.checksum());
     }
 }
\ No newline at end of file
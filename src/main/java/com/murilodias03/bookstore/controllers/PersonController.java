@@ -1,8 +1,10 @@
 package com.murilodias03.bookstore.controllers;
 
 import com.murilodias03.bookstore.controllers.docs.PersonControllerDocs;
+import com.murilodias03.bookstore.data.dto.ImportJobDTO;
 import com.murilodias03.bookstore.data.dto.PersonDTO;
 import com.murilodias03.bookstore.file.exporter.MediaTypes;
+import com.murilodias03.bookstore.services.PersonImportJobService;
 import com.murilodias03.bookstore.services.PersonService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +20,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import java.util.List;
 import java.util.Map;
@@ -28,9 +34,11 @@ import java.util.Map;
 public class PersonController implements PersonControllerDocs {
 
     private final PersonService personService;
+    private final PersonImportJobService importJobService;
 
-    public PersonController(PersonService personService) {
+    public PersonController(PersonService personService, PersonImportJobService importJobService) {
         this.personService = personService;
+        this.importJobService = importJobService;
     }
 
     @GetMapping(produces = {
@@ -82,6 +90,29 @@ public class PersonController implements PersonControllerDocs {
                 .body(file);
     }
 
+    @GetMapping(value = "/exportAll", produces = {
+            MediaTypes.APPLICATION_XLSX_VALUE,
+            MediaTypes.APPLICATION_CSV_VALUE,
+            MediaTypes.APPLICATION_PDF_VALUE})
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportAll(HttpServletRequest request) {
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+
+        StreamingResponseBody file = personService.exportAll(acceptHeader);
+
+        Map<String, String> extensionMap = Map.of(
+                MediaTypes.APPLICATION_XLSX_VALUE, ".xlsx",
+                MediaTypes.APPLICATION_CSV_VALUE, ".csv",
+                MediaTypes.APPLICATION_PDF_VALUE, ".pdf"
+        );
+        var fileName = "people_exported" + extensionMap.getOrDefault(acceptHeader, "");
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(acceptHeader))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(file);
+    }
+
     @GetMapping(value = "/exportPerson/{id}", produces = MediaTypes.APPLICATION_PDF_VALUE)
     @Override
     public ResponseEntity<Resource> exportPerson(@PathVariable Long id,
@@ -113,6 +144,36 @@ public class PersonController implements PersonControllerDocs {
         return ResponseEntity.ok().body(personService.findByName(firstName, pageable));
     }
 
+    @GetMapping(value = "/quickSearch/{term}",
+            produces = {
+                MediaType.APPLICATION_JSON_VALUE,
+                MediaType.APPLICATION_XML_VALUE,
+                MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<PagedModel<EntityModel<PersonDTO>>> quickSearch(
+            @PathVariable String term,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size
+    ) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Direction.ASC, "firstName"));
+        return ResponseEntity.ok().body(personService.quickSearch(term, pageable));
+    }
+
+    @GetMapping(value = "/search",
+            produces = {
+                MediaType.APPLICATION_JSON_VALUE,
+                MediaType.APPLICATION_XML_VALUE,
+                MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<PagedModel<EntityModel<PersonDTO>>> search(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size
+    ) {
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok().body(personService.search(query, pageable));
+    }
+
     @GetMapping(value = "/{id}", produces = {
             MediaType.APPLICATION_JSON_VALUE,
             MediaType.APPLICATION_XML_VALUE,
@@ -145,8 +206,35 @@ public class PersonController implements PersonControllerDocs {
                     MediaType.APPLICATION_YAML_VALUE}
     )
     @Override
-    public List<PersonDTO> createWithFile(@RequestParam MultipartFile file) {
-        return personService.createWithFile(file);
+    public List<PersonDTO> createWithFile(@RequestParam MultipartFile file,
+                                          @RequestParam(value = "upsert", defaultValue = "false") Boolean upsert) {
+        return personService.createWithFile(file, upsert);
+    }
+
+    @PostMapping(value = "/import-jobs",
+            produces = {
+                    MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_XML_VALUE,
+                    MediaType.APPLICATION_YAML_VALUE}
+    )
+    @Override
+    public ResponseEntity<ImportJobDTO> createImportJob(@RequestParam MultipartFile file,
+                                                        @RequestParam(value = "upsert", defaultValue = "false") Boolean upsert) {
+        ImportJobDTO job = importJobService.submit(file, upsert);
+        return ResponseEntity.accepted()
+                .location(linkTo(methodOn(PersonController.class).findImportJob(job.getId())).toUri())
+                .body(job);
+    }
+
+    @GetMapping(value = "/import-jobs/{id}",
+            produces = {
+                    MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_XML_VALUE,
+                    MediaType.APPLICATION_YAML_VALUE}
+    )
+    @Override
+    public ResponseEntity<ImportJobDTO> findImportJob(@PathVariable String id) {
+        return ResponseEntity.ok().body(importJobService.findById(id));
     }
 
     @PutMapping(
@@ -6,6 +6,8 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.http.ResponseEntity;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthControllerDocs {
 
     @Operation(summary = "Authenticates an User and Returns a Token",
@@ -15,10 +17,11 @@ public interface AuthControllerDocs {
                     @ApiResponse(description = "Success", responseCode = "200", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<?> signIn(AccountCredentialsDTO credentials);
+    CompletableFuture<ResponseEntity<?>> signIn(AccountCredentialsDTO credentials);
 
     @Operation(summary = "Refresh token for authenticated user and returns a token",
             description = "Generates a new access token using the provided refresh token and username.",
@@ -43,6 +43,33 @@ public interface BookControllerDocs {
     );
 
 
+    @Operation(summary = "Quick Search Books",
+            description = "Finds books by any part of their titles or authors using the in-memory search index",
+            tags = {"Books"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = BookDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<PagedModel<EntityModel<BookDTO>>> quickSearch(
+            @PathVariable String term,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size
+    );
+
+
     @Operation(summary = "Find a Book",
             description = "Find specific book by your ID",
             tags = {"Books"},
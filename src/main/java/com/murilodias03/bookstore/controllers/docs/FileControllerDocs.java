@@ -1,13 +1,16 @@
 package com.murilodias03.bookstore.controllers.docs;
 
 import com.murilodias03.bookstore.data.dto.UploadFileResponseDTO;
+import com.murilodias03.bookstore.data.dto.UploadPartDTO;
+import com.murilodias03.bookstore.data.dto.UploadSessionDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.core.io.Resource;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface FileControllerDocs {
@@ -17,14 +20,44 @@ public interface FileControllerDocs {
             tags = {"Files"})
     UploadFileResponseDTO uploadFile(MultipartFile file);
 
+    @Operation(summary = "Upload a File Stream",
+            description = "Upload the raw request body as a file, returning its size and SHA-256 checksum",
+            tags = {"Files"})
+    UploadFileResponseDTO uploadFileStream(String fileName, HttpServletRequest request) throws IOException;
+
     @Operation(summary = "Upload Multiple Files",
             description = "Upload multiple files",
             tags = {"Files"})
     List<UploadFileResponseDTO> uploadMultipleFile(MultipartFile[] files);
 
+    @Operation(summary = "Start a Chunked Upload",
+            description = "Opens a resumable upload session whose parts can be sent separately and in parallel",
+            tags = {"Files"})
+    ResponseEntity<UploadSessionDTO> initiateUpload(String fileName);
+
+    @Operation(summary = "Upload a Part",
+            description = "Stores part N of a chunked upload from the raw request body, replacing an earlier attempt",
+            tags = {"Files"})
+    UploadPartDTO uploadPart(String id, int partNumber, HttpServletRequest request) throws IOException;
+
+    @Operation(summary = "Find a Chunked Upload",
+            description = "Lists the parts received so far, so an interrupted upload can resume with the missing ones",
+            tags = {"Files"})
+    UploadSessionDTO findUpload(String id);
+
+    @Operation(summary = "Complete a Chunked Upload",
+            description = "Assembles parts 1..N into the stored file",
+            tags = {"Files"})
+    UploadFileResponseDTO completeUpload(String id);
+
+    @Operation(summary = "Abort a Chunked Upload",
+            description = "Discards an upload session and its parts",
+            tags = {"Files"})
+    ResponseEntity<?> abortUpload(String id);
+
     @Operation(summary = "Download a File",
-            description = "Download a file",
+            description = "Download a file; supports single byte Range requests and conditional GETs via ETag / Last-Modified",
             tags = {"Files"})
-    ResponseEntity<Resource> downloadFile(String fileName, HttpServletRequest request);
+    void downloadFile(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException;
 
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.murilodias03.bookstore.controllers.docs;
 
+import com.murilodias03.bookstore.data.dto.ImportJobDTO;
 import com.murilodias03.bookstore.data.dto.PersonDTO;
 import com.murilodias03.bookstore.file.exporter.MediaTypes;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -48,7 +50,10 @@ public interface PersonControllerDocs {
     );
 
     @Operation(summary = "Massive People Creation",
-            description = "Massive people creation with upload of XLSX or CSV",
+            description = "Massive people creation with upload of XLSX or CSV; with upsert=true rows already stored " +
+                    "(same first name, last name and address) are updated instead of duplicated; the file is " +
+                    "imported in one transaction, so an invalid row answers 400 and nothing is saved; use " +
+                    "/person/import-jobs to skip invalid rows and get a per-row report",
             tags = {"People"},
             responses = {
                     @ApiResponse(
@@ -64,7 +69,43 @@ public interface PersonControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    List<PersonDTO> createWithFile(MultipartFile file);
+    List<PersonDTO> createWithFile(MultipartFile file, Boolean upsert);
+
+    @Operation(summary = "Start People Import Job",
+            description = "Stores an XLSX or CSV upload and imports it in the background, returning the job to poll; " +
+                    "upsert=true updates people that already exist instead of reporting them as duplicates",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                        description = "Accepted",
+                        responseCode = "202",
+                        content = {
+                            @Content(schema = @Schema(implementation = ImportJobDTO.class))
+                        }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<ImportJobDTO> createImportJob(MultipartFile file, Boolean upsert);
+
+    @Operation(summary = "Find People Import Job",
+            description = "Returns the progress, throughput and row errors of an import job",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                        description = "Success",
+                        responseCode = "200",
+                        content = {
+                            @Content(schema = @Schema(implementation = ImportJobDTO.class))
+                        }),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<ImportJobDTO> findImportJob(@PathVariable String id);
 
     @Operation(summary = "Export People",
             description = "export a page of people in XLSX and CSV format",
@@ -91,6 +132,25 @@ public interface PersonControllerDocs {
             HttpServletRequest request
     );
 
+    @Operation(summary = "Export All People",
+            description = "Streams every person in XLSX, CSV or PDF format without loading the whole table in memory",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaTypes.APPLICATION_XLSX_VALUE),
+                                    @Content(mediaType = MediaTypes.APPLICATION_CSV_VALUE),
+                                    @Content(mediaType = MediaTypes.APPLICATION_PDF_VALUE)
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<StreamingResponseBody> exportAll(HttpServletRequest request);
+
     @Operation(summary = "Export Person data as PDF",
             description = "Export a specific person data as PDF by your ID",
             tags = {"People"},
@@ -137,6 +197,60 @@ public interface PersonControllerDocs {
     );
 
 
+    @Operation(summary = "Quick Search People",
+            description = "Finds people by any part of their first or last names using the in-memory search index",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = PersonDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<PagedModel<EntityModel<PersonDTO>>> quickSearch(
+            @PathVariable String term,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size
+    );
+
+
+    @Operation(summary = "Search People",
+            description = "Searches people by first name, last name and address, ranked by relevance",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = PersonDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<PagedModel<EntityModel<PersonDTO>>> search(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size
+    );
+
+
     @Operation(summary = "Find a Person",
             description = "Find specific person by your ID",
             tags = {"People"},
@@ -0,0 +1,135 @@
+package com.murilodias03.bookstore.data.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+public class ImportJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String status;
+    private String fileName;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsFailed;
+    private double rowsPerSecond;
+    private Date createdAt;
+    private Date startedAt;
+    private Date finishedAt;
+    private String message;
+    private List<ImportRowErrorDTO> errors;
+
+    public ImportJobDTO() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Date finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<ImportRowErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportRowErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportJobDTO that = (ImportJobDTO) o;
+        return getRowsProcessed() == that.getRowsProcessed() && getRowsImported() == that.getRowsImported() && getRowsFailed() == that.getRowsFailed() && Double.compare(getRowsPerSecond(), that.getRowsPerSecond()) == 0 && Objects.equals(getId(), that.getId()) && Objects.equals(getStatus(), that.getStatus()) && Objects.equals(getFileName(), that.getFileName()) && Objects.equals(getCreatedAt(), that.getCreatedAt()) && Objects.equals(getStartedAt(), that.getStartedAt()) && Objects.equals(getFinishedAt(), that.getFinishedAt()) && Objects.equals(getMessage(), that.getMessage()) && Objects.equals(getErrors(), that.getErrors());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getStatus(), getFileName(), getRowsProcessed(), getRowsImported(), getRowsFailed(), getRowsPerSecond(), getCreatedAt(), getStartedAt(), getFinishedAt(), getMessage(), getErrors());
+    }
+}
@@ -0,0 +1,48 @@
+package com.murilodias03.bookstore.data.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class ImportRowErrorDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long row;
+    private String message;
+
+    public ImportRowErrorDTO() {
+    }
+
+    public ImportRowErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportRowErrorDTO that = (ImportRowErrorDTO) o;
+        return getRow() == that.getRow() && Objects.equals(getMessage(), that.getMessage());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getRow(), getMessage());
+    }
+}
@@ -109,6 +109,10 @@ public class PersonDTO extends RepresentationModel<PersonDTO> implements Seriali
         return books;
     }
 
+    public void setBooks(List<Book> books) {
+        this.books = books;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -11,6 +11,7 @@ public class UploadFileResponseDTO implements Serializable {
     private String fileDownloadUri;
     private String fileType;
     private long fileSize;
+    private String checksum;
 
     public UploadFileResponseDTO() {
     }
@@ -22,6 +23,11 @@ public class UploadFileResponseDTO implements Serializable {
         this.fileSize = fileSize;
     }
 
+    public UploadFileResponseDTO(String fileName, String fileDownloadUri, String fileType, long fileSize, String checksum) {
+        this(fileName, fileDownloadUri, fileType, fileSize);
+        this.checksum = checksum;
+    }
+
     public String getFileName() {
         return fileName;
     }
@@ -54,15 +60,23 @@ public class UploadFileResponseDTO implements Serializable {
         this.fileSize = fileSize;
     }
 
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         UploadFileResponseDTO that = (UploadFileResponseDTO) o;
-        return getFileSize() == that.getFileSize() && Objects.equals(getFileName(), that.getFileName()) && Objects.equals(getFileDownloadUri(), that.getFileDownloadUri()) && Objects.equals(getFileType(), that.getFileType());
+        return getFileSize() == that.getFileSize() && Objects.equals(getFileName(), that.getFileName()) && Objects.equals(getFileDownloadUri(), that.getFileDownloadUri()) && Objects.equals(getFileType(), that.getFileType()) && Objects.equals(getChecksum(), that.getChecksum());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getFileName(), getFileDownloadUri(), getFileType(), getFileSize());
+        return Objects.hash(getFileName(), getFileDownloadUri(), getFileType(), getFileSize(), getChecksum());
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.murilodias03.bookstore.data.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class UploadPartDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int partNumber;
+    private long size;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String checksum;
+
+    public UploadPartDTO() {
+    }
+
+    public UploadPartDTO(int partNumber, long size, String checksum) {
+        this.partNumber = partNumber;
+        this.size = size;
+        this.checksum = checksum;
+    }
+
+    public int getPartNumber() {
+        return partNumber;
+    }
+
+    public void setPartNumber(int partNumber) {
+        this.partNumber = partNumber;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        UploadPartDTO that = (UploadPartDTO) o;
+        return getPartNumber() == that.getPartNumber() && getSize() == that.getSize() && Objects.equals(getChecksum(), that.getChecksum());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getPartNumber(), getSize(), getChecksum());
+    }
+}
@@ -0,0 +1,81 @@
+package com.murilodias03.bookstore.data.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+public class UploadSessionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String fileName;
+    private long maxPartSize;
+    private Date createdAt;
+    private Date expiresAt;
+    private List<UploadPartDTO> parts;
+
+    public UploadSessionDTO() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getMaxPartSize() {
+        return maxPartSize;
+    }
+
+    public void setMaxPartSize(long maxPartSize) {
+        this.maxPartSize = maxPartSize;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public List<UploadPartDTO> getParts() {
+        return parts;
+    }
+
+    public void setParts(List<UploadPartDTO> parts) {
+        this.parts = parts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        UploadSessionDTO that = (UploadSessionDTO) o;
+        return getMaxPartSize() == that.getMaxPartSize() && Objects.equals(getId(), that.getId()) && Objects.equals(getFileName(), that.getFileName()) && Objects.equals(getCreatedAt(), that.getCreatedAt()) && Objects.equals(getExpiresAt(), that.getExpiresAt()) && Objects.equals(getParts(), that.getParts());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getFileName(), getMaxPartSize(), getCreatedAt(), getExpiresAt(), getParts());
+    }
+}
@@ -0,0 +1,163 @@
+package com.murilodias03.bookstore.file.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+public class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final ContentEncoding encoding;
+    private final long minResponseSize;
+
+    private long contentLength = -1;
+    private Boolean compressing;
+    private OutputStream compressor;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CompressingResponseWrapper(HttpServletResponse response, ContentEncoding encoding, long minResponseSize) {
+        super(response);
+        this.encoding = encoding;
+        this.minResponseSize = minResponseSize;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        // Held back until the body starts, because a compressed body has a different length
+        this.contentLength = length;
+        if (Boolean.FALSE.equals(compressing)) super.setContentLengthLong(length);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) throw new IllegalStateException("getWriter() has already been called");
+        if (outputStream == null) outputStream = createOutputStream();
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) throw new IllegalStateException("getOutputStream() has already been called");
+            outputStream = createOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        else if (outputStream != null) outputStream.flush();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        contentLength = -1;
+        compressing = null;
+        compressor = null;
+        outputStream = null;
+        writer = null;
+    }
+
+    public boolean isCompressing() {
+        return Boolean.TRUE.equals(compressing);
+    }
+
+    // Writes the compression trailer; must run once the handler (or its async part) is done with the body
+    public void finish() throws IOException {
+        if (writer != null) writer.flush();
+        if (compressor != null) {
+            compressor.close();
+        } else if (compressing == null && contentLength >= 0 && !isCommitted()) {
+            super.setContentLengthLong(contentLength);
+        }
+    }
+
+    private ServletOutputStream createOutputStream() throws IOException {
+        compressing = shouldCompress();
+        ServletOutputStream target = super.getOutputStream();
+        if (!compressing) {
+            if (contentLength >= 0) super.setContentLengthLong(contentLength);
+            return target;
+        }
+
+        super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+        String eTag = getHeader(HttpHeaders.ETAG);
+        if (eTag != null && !eTag.startsWith("W/")) super.setHeader(HttpHeaders.ETAG, "W/" + eTag);
+        compressor = encoding.compress(target);
+
+        return new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                compressor.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                compressor.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                compressor.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                compressor.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return target.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                target.setWriteListener(writeListener);
+            }
+        };
+    }
+
+    private boolean shouldCompress() {
+        int status = getStatus();
+        if (status < 200 || status == SC_NO_CONTENT || status == SC_PARTIAL_CONTENT || status == SC_NOT_MODIFIED) return false;
+        if (containsHeader(HttpHeaders.CONTENT_ENCODING) || containsHeader(HttpHeaders.CONTENT_RANGE)) return false;
+        if (contentLength >= 0 && contentLength < minResponseSize) return false;
+        return ContentEncoding.isCompressible(getContentType());
+    }
+}
@@ -0,0 +1,132 @@
+package com.murilodias03.bookstore.file.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public enum ContentEncoding {
+
+    ZSTD("zstd", ".zst") {
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            return new ZstdOutputStream(out, 3);
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new ZstdInputStream(in);
+        }
+    },
+
+    GZIP("gzip", ".gz") {
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            // syncFlush so a flush() reaches the client while a long export is still streaming
+            return new GZIPOutputStream(out, 8192, true);
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, 8192);
+        }
+    };
+
+    private static final List<MediaType> COMPRESSIBLE_TYPES = List.of(
+            MediaType.parseMediaType("text/*"),
+            MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType("application/*+json"),
+            MediaType.APPLICATION_XML,
+            MediaType.parseMediaType("application/*+xml"),
+            MediaType.APPLICATION_YAML,
+            MediaType.parseMediaType("application/x-yaml"),
+            MediaType.parseMediaType("application/javascript")
+    );
+
+    private final String token;
+    private final String fileSuffix;
+
+    ContentEncoding(String token, String fileSuffix) {
+        this.token = token;
+        this.fileSuffix = fileSuffix;
+    }
+
+    public abstract OutputStream compress(OutputStream out) throws IOException;
+
+    public abstract InputStream decompress(InputStream in) throws IOException;
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+
+    public boolean isAcceptedBy(String acceptEncoding) {
+        return acceptEncoding != null && quality(acceptEncoding, token) > 0;
+    }
+
+    public static Optional<ContentEncoding> fromToken(String token) {
+        for (ContentEncoding encoding : values()) {
+            if (encoding.token.equalsIgnoreCase(token)) return Optional.of(encoding);
+        }
+        return Optional.empty();
+    }
+
+    // Highest q-value wins; on a tie zstd is preferred because it is both faster and smaller than gzip
+    public static Optional<ContentEncoding> negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) return Optional.empty();
+
+        ContentEncoding best = null;
+        double bestQuality = 0;
+        for (ContentEncoding encoding : values()) {
+            double quality = quality(acceptEncoding, encoding.token);
+            if (quality > bestQuality) {
+                best = encoding;
+                bestQuality = quality;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) return false;
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return COMPRESSIBLE_TYPES.stream().anyMatch(type -> type.includes(mediaType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static double quality(String acceptEncoding, String token) {
+        double wildcard = 0;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals(token)) return quality;
+            if (coding.equals("*")) wildcard = quality;
+        }
+        return wildcard;
+    }
+}
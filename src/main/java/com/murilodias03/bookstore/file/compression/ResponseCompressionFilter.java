@@ -0,0 +1,55 @@
+package com.murilodias03.bookstore.file.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final String WRAPPER_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".WRAPPER";
+
+    private final long minResponseSize;
+
+    public ResponseCompressionFilter(long minResponseSize) {
+        this.minResponseSize = minResponseSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // Streaming exports finish on an async dispatch, and only then can the compressed body be closed
+        if (isAsyncDispatch(request)) {
+            CompressingResponseWrapper wrapper = (CompressingResponseWrapper) request.getAttribute(WRAPPER_ATTRIBUTE);
+            filterChain.doFilter(request, response);
+            if (wrapper != null && !request.isAsyncStarted()) wrapper.finish();
+            return;
+        }
+
+        Optional<ContentEncoding> encoding = ContentEncoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding.isEmpty() || request.getHeader(HttpHeaders.RANGE) != null || "HEAD".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, encoding.get(), minResponseSize);
+        filterChain.doFilter(request, wrapper);
+        if (request.isAsyncStarted()) {
+            request.setAttribute(WRAPPER_ATTRIBUTE, wrapper);
+        } else {
+            wrapper.finish();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.murilodias03.bookstore.file.exporter.contract;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+public interface StreamingPersonExporter {
+
+    void exportPeople(Stream<PersonDTO> people, OutputStream outputStream) throws IOException;
+
+}
@@ -3,6 +3,7 @@ package com.murilodias03.bookstore.file.exporter.factory;
 import com.murilodias03.bookstore.exceptions.BadRequestException;
 import com.murilodias03.bookstore.file.exporter.MediaTypes;
 import com.murilodias03.bookstore.file.exporter.contract.PersonExporter;
+import com.murilodias03.bookstore.file.exporter.contract.StreamingPersonExporter;
 import com.murilodias03.bookstore.file.exporter.impl.CsvExporter;
 import com.murilodias03.bookstore.file.exporter.impl.PdfExporter;
 import com.murilodias03.bookstore.file.exporter.impl.XlsxExporter;
@@ -33,4 +34,16 @@ public class FileExporterFactory {
             throw new BadRequestException("Invalid file format!");
         }
     }
+
+    public StreamingPersonExporter getStreamingExporter(String acceptHeader) {
+        if (MediaTypes.APPLICATION_XLSX_VALUE.equalsIgnoreCase(acceptHeader)) {
+            return context.getBean(XlsxExporter.class);
+        } else if (MediaTypes.APPLICATION_CSV_VALUE.equalsIgnoreCase(acceptHeader)) {
+            return context.getBean(CsvExporter.class);
+        } else if (MediaTypes.APPLICATION_PDF_VALUE.equalsIgnoreCase(acceptHeader)) {
+            return context.getBean(PdfExporter.class);
+        } else {
+            throw new BadRequestException("Invalid file format!");
+        }
+    }
 }
\ No newline at end of file
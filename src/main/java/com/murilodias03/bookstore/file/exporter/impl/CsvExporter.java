@@ -2,49 +2,69 @@ package com.murilodias03.bookstore.file.exporter.impl;
 
 import com.murilodias03.bookstore.data.dto.PersonDTO;
 import com.murilodias03.bookstore.file.exporter.contract.PersonExporter;
+import com.murilodias03.bookstore.file.exporter.contract.StreamingPersonExporter;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Component
-public class CsvExporter implements PersonExporter {
+public class CsvExporter implements PersonExporter, StreamingPersonExporter {
+
+    private static final CSVFormat CSV_FORMAT = CSVFormat.Builder.create()
+            .setHeader("ID", "First Name", "Last Name", "Address", "Gender", "Enabled")
+            .setSkipHeaderRecord(false)
+            .build();
 
     @Override
     public Resource exportPeople(List<PersonDTO> people) throws Exception {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-
-        CSVFormat csvFormat = CSVFormat.Builder.create()
-                .setHeader("ID", "First Name", "Last Name", "Address", "Gender", "Enabled")
-                .setSkipHeaderRecord(false)
-                .build();
-
-        try (CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat)){
-
-            for (PersonDTO personDTO : people) {
-                csvPrinter.printRecord(
-                        personDTO.getId(),
-                        personDTO.getFirstName(),
-                        personDTO.getLastName(),
-                        personDTO.getAddress(),
-                        personDTO.getGender(),
-                        personDTO.getEnabled()
-                );
-            }
+        exportPeople(people.stream(), outputStream);
+        return new ByteArrayResource(outputStream.toByteArray());
+    }
+
+    @Override
+    public void exportPeople(Stream<PersonDTO> people, OutputStream outputStream) throws IOException {
+        // The caller owns the stream (e.g. the servlet response), so only flush it here
+        var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        CSVPrinter csvPrinter = new CSVPrinter(writer, CSV_FORMAT);
 
+        try {
+            people.forEach(personDTO -> printRecord(csvPrinter, personDTO));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        return new ByteArrayResource(outputStream.toByteArray());
+        csvPrinter.flush();
     }
 
     @Override
     public Resource exportPerson(PersonDTO person) throws Exception {
         return null;
     }
-}
\ No newline at end of file
+
+    private void printRecord(CSVPrinter csvPrinter, PersonDTO personDTO) {
+        try {
+            csvPrinter.printRecord(
+                    personDTO.getId(),
+                    personDTO.getFirstName(),
+                    personDTO.getLastName(),
+                    personDTO.getAddress(),
+                    personDTO.getGender(),
+                    personDTO.getEnabled()
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,79 +2,185 @@ package com.murilodias03.bookstore.file.exporter.impl;
 
 import com.murilodias03.bookstore.data.dto.PersonDTO;
 import com.murilodias03.bookstore.file.exporter.contract.PersonExporter;
+import com.murilodias03.bookstore.file.exporter.contract.StreamingPersonExporter;
+import com.murilodias03.bookstore.file.exporter.report.JasperReportRegistry;
 import com.murilodias03.bookstore.services.QRCodeService;
+import jakarta.annotation.PreDestroy;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 @Component
-public class PdfExporter implements PersonExporter {
+public class PdfExporter implements PersonExporter, StreamingPersonExporter {
 
     private final QRCodeService qrCodeService;
-
-    public PdfExporter(QRCodeService qrCodeService) {
+    private final JasperReportRegistry reports;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int pagesInMemory;
+    private final ExecutorService fillExecutor;
+
+    public PdfExporter(QRCodeService qrCodeService,
+                       JasperReportRegistry reports,
+                       @Value("${reports.pdf.chunk-size:500}") int chunkSize,
+                       @Value("${reports.pdf.parallelism:0}") int parallelism,
+                       @Value("${reports.pdf.pages-in-memory:64}") int pagesInMemory) {
         this.qrCodeService = qrCodeService;
+        this.reports = reports;
+        this.chunkSize = chunkSize;
+        this.pagesInMemory = Math.max(pagesInMemory, 1);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.fillExecutor = Executors.newFixedThreadPool(this.parallelism,
+                Thread.ofPlatform().name("pdf-fill-", 0).daemon().factory());
     }
 
     @Override
     public Resource exportPeople(List<PersonDTO> people) throws Exception {
-        InputStream inputStream = getClass().getResourceAsStream("/templates/people.jrxml");
-
-        if (inputStream == null) throw new RuntimeException("Template file not found: /templates/people.jrxml");
-
-        JasperReport jasperReport = JasperCompileManager.compileReport(inputStream);
-
-        JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(people);
-        Map<String, Object> parameters = new HashMap<>();
-        // parameters.put("title", "People Report");
-
-        JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
-
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
+            exportPeople(people.stream(), outputStream);
             return new ByteArrayResource(outputStream.toByteArray());
         }
     }
 
     @Override
-    public Resource exportPerson(PersonDTO person) throws Exception {
-        InputStream mainTemplateStream = getClass().getResourceAsStream("/templates/person.jrxml");
-        if (mainTemplateStream == null) throw new RuntimeException("Template file not found: /templates/person.jrxml");
-
-        InputStream subReportStream = getClass().getResourceAsStream("/templates/books.jrxml");
-        if (subReportStream == null) throw new RuntimeException("Template file not found: /templates/books.jrxml");
-
-        JasperReport mainReport = JasperCompileManager.compileReport(mainTemplateStream);
-        JasperReport subReport = JasperCompileManager.compileReport(subReportStream);
+    public void exportPeople(Stream<PersonDTO> people, OutputStream outputStream) throws IOException {
+        // Caps the chunks waiting to be filled so a large stream is not read far ahead of the workers
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Future<JasperPrint>> chunks = new ArrayList<>();
+        // Finished pages of every chunk are swapped to disk, so memory stays flat however many rows are exported
+        JRSwapFileVirtualizer virtualizer = new JRSwapFileVirtualizer(pagesInMemory,
+                new JRSwapFile(System.getProperty("java.io.tmpdir"), 4096, 256), true);
+
+        try {
+            ChunkLayout layout = chunkLayout();
+            List<PersonDTO> chunk = new ArrayList<>(layout.firstChunkRows());
+            var iterator = people.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == (chunks.isEmpty() ? layout.firstChunkRows() : layout.chunkRows())) {
+                    chunks.add(submitChunk(chunk, chunks.isEmpty(), virtualizer, inFlight));
+                    chunk = new ArrayList<>(layout.chunkRows());
+                }
+            }
+            if (!chunk.isEmpty() || chunks.isEmpty()) chunks.add(submitChunk(chunk, chunks.isEmpty(), virtualizer, inFlight));
+
+            JasperPrint merged = chunks.getFirst().get();
+            for (Future<JasperPrint> next : chunks.subList(1, chunks.size())) {
+                next.get().getPages().forEach(merged::addPage);
+            }
+            renumberPages(merged);
+
+            reports.exportToPdf("people", merged, outputStream);
+            outputStream.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while filling the people report!", e);
+        } catch (ExecutionException | JRException e) {
+            throw new IOException("Error generating the people report!", e);
+        } finally {
+            chunks.forEach(future -> future.cancel(true));
+            virtualizer.cleanup();
+        }
+    }
 
+    @Override
+    public Resource exportPerson(PersonDTO person) throws Exception {
         InputStream qrCodeStream = qrCodeService.generateQRCode(person.getProfileUrl(), 200, 200);
 
         JRBeanCollectionDataSource mainDataSource = new JRBeanCollectionDataSource(Collections.singletonList(person));
 
         JRBeanCollectionDataSource subDataResourceSource = new JRBeanCollectionDataSource(person.getBooks());
 
-        String path =  getClass().getResource("/templates/books.jasper").getPath();
-
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("SUB_REPORT_DATA_SOURCE", subDataResourceSource);
-        parameters.put("BOOK_SUB_REPORT", subReport);
-        parameters.put("SUB_REPORT_DIR", path);
+        parameters.put("BOOK_SUB_REPORT", reports.get("books"));
         parameters.put("QR_CODE_IMAGE", qrCodeStream);
 
-        JasperPrint jasperPrint = JasperFillManager.fillReport(mainReport, parameters, mainDataSource);
+        JasperPrint jasperPrint = reports.fill("person", parameters, mainDataSource);
 
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
+            reports.exportToPdf("person", jasperPrint, outputStream);
             return new ByteArrayResource(outputStream.toByteArray());
         }
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void shutdown() {
+        fillExecutor.shutdownNow();
+    }
+
+    private Future<JasperPrint> submitChunk(List<PersonDTO> chunk, boolean first, JRVirtualizer virtualizer,
+                                           Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            return fillExecutor.submit(() -> {
+                try {
+                    Map<String, Object> parameters = new HashMap<>();
+                    parameters.put("SHOW_TITLE", first);
+                    parameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+                    return reports.fill("people", parameters, new JRBeanCollectionDataSource(chunk));
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    // Chunks hold whole pages, so every chunk but the last ends on a full page and the merged report
+    // looks like a single fill; the first chunk loses the title's height on its first page
+    private ChunkLayout chunkLayout() {
+        JasperReport report = reports.get("people");
+        int detailHeight = report.getDetailSection().getBands()[0].getHeight();
+        int bodyHeight = report.getPageHeight() - report.getTopMargin() - report.getBottomMargin()
+                - height(report.getPageHeader()) - height(report.getColumnHeader())
+                - height(report.getColumnFooter()) - height(report.getPageFooter());
+
+        int rowsPerPage = Math.max(bodyHeight / detailHeight, 1);
+        int firstPageRows = Math.max((bodyHeight - height(report.getTitle())) / detailHeight, 1);
+        int pagesPerChunk = Math.max(Math.round((float) chunkSize / rowsPerPage), 1);
+        return new ChunkLayout(firstPageRows + (pagesPerChunk - 1) * rowsPerPage, pagesPerChunk * rowsPerPage);
+    }
+
+    private static int height(JRBand band) {
+        return band == null ? 0 : band.getHeight();
+    }
+
+    private record ChunkLayout(int firstChunkRows, int chunkRows) {
+    }
+
+    // Every chunk numbers its own pages, so the footer is rewritten once the pages are merged
+    private void renumberPages(JasperPrint print) {
+        List<JRPrintPage> pages = print.getPages();
+        for (int i = 0; i < pages.size(); i++) {
+            for (JRPrintElement element : pages.get(i).getElements()) {
+                if (!(element instanceof JRPrintText text)) continue;
+                if ("pageNumber".equals(text.getKey())) text.setText("Page " + (i + 1));
+                else if ("pageCount".equals(text.getKey())) text.setText(" of " + pages.size());
+            }
+        }
+    }
+}
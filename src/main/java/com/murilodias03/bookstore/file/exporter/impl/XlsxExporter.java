@@ -2,53 +2,73 @@ package com.murilodias03.bookstore.file.exporter.impl;
 
 import com.murilodias03.bookstore.data.dto.PersonDTO;
 import com.murilodias03.bookstore.file.exporter.contract.PersonExporter;
+import com.murilodias03.bookstore.file.exporter.contract.StreamingPersonExporter;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Component
-public class XlsxExporter  implements PersonExporter {
+public class XlsxExporter  implements PersonExporter, StreamingPersonExporter {
+
+    private static final String[] HEADERS = {"ID", "First Name", "Last Name", "Address", "Gender", "Enabled"};
+
+    // Rows kept in memory before SXSSF flushes them to a temp file
+    private static final int ROW_ACCESS_WINDOW = 100;
+    private static final int MAX_COLUMN_CHARS = 255;
 
     @Override
     public Resource exportPeople(List<PersonDTO> people) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportPeople(people.stream(), outputStream);
+        return new ByteArrayResource(outputStream.toByteArray());
+    }
 
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("People");
+    @Override
+    public void exportPeople(Stream<PersonDTO> people, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
 
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"ID", "First Name", "Last Name", "Address", "Gender", "Enabled"};
+        try (workbook) {
+            SXSSFSheet sheet = workbook.createSheet("People");
+            int[] columnChars = new int[HEADERS.length];
 
-            for (int i = 0; i < headers.length; i++) {
+            CellStyle headerStyle = createHeaderCellStyle(workbook);
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(createHeaderCellStyle(workbook));
+                cell.setCellValue(HEADERS[i]);
+                cell.setCellStyle(headerStyle);
+                columnChars[i] = HEADERS[i].length();
             }
 
+            var iterator = people.iterator();
             int rowIndex = 1;
-            for (PersonDTO personDTO : people) {
+            while (iterator.hasNext()) {
+                PersonDTO personDTO = iterator.next();
                 Row row = sheet.createRow(rowIndex++);
-                row.createCell(0).setCellValue(personDTO.getId());
-                row.createCell(1).setCellValue(personDTO.getFirstName());
-                row.createCell(2).setCellValue(personDTO.getLastName());
-                row.createCell(3).setCellValue(personDTO.getAddress());
-                row.createCell(4).setCellValue(personDTO.getGender());
-                row.createCell(5).setCellValue(
-                        personDTO.getEnabled() != null && personDTO.getEnabled() ? "Yes" : "No");
+                setCell(row, 0, personDTO.getId(), columnChars);
+                setCell(row, 1, personDTO.getFirstName(), columnChars);
+                setCell(row, 2, personDTO.getLastName(), columnChars);
+                setCell(row, 3, personDTO.getAddress(), columnChars);
+                setCell(row, 4, personDTO.getGender(), columnChars);
+                setCell(row, 5, personDTO.getEnabled() != null && personDTO.getEnabled() ? "Yes" : "No", columnChars);
             }
 
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            for (int i = 0; i < HEADERS.length; i++) {
+                sheet.setColumnWidth(i, Math.min(columnChars[i] + 2, MAX_COLUMN_CHARS) * 256);
             }
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-
-            return new ByteArrayResource(outputStream.toByteArray());
+            outputStream.flush();
         }
     }
 
@@ -57,6 +77,20 @@ public class XlsxExporter  implements PersonExporter {
         return null;
     }
 
+    private void setCell(Row row, int column, Long value, int[] columnChars) {
+        Cell cell = row.createCell(column);
+        if (value == null) return;
+        cell.setCellValue(value);
+        columnChars[column] = Math.max(columnChars[column], String.valueOf(value).length());
+    }
+
+    private void setCell(Row row, int column, String value, int[] columnChars) {
+        Cell cell = row.createCell(column);
+        if (value == null) return;
+        cell.setCellValue(value);
+        columnChars[column] = Math.max(columnChars[column], value.length());
+    }
+
     private CellStyle createHeaderCellStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
@@ -65,4 +99,4 @@ public class XlsxExporter  implements PersonExporter {
         style.setAlignment(HorizontalAlignment.CENTER);
         return style;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.murilodias03.bookstore.file.exporter.report;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.sf.jasperreports.engine.*;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+public class JasperReportRegistry {
+
+    private static final String TEMPLATES_DIR = "/templates/";
+
+    private final Logger logger = LoggerFactory.getLogger(JasperReportRegistry.class);
+
+    private final ConcurrentMap<String, LoadedReport> reports = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean hotReload;
+
+    public JasperReportRegistry(MeterRegistry meterRegistry,
+                                @Value("${reports.hot-reload:false}") boolean hotReload) {
+        this.meterRegistry = meterRegistry;
+        this.hotReload = hotReload;
+    }
+
+    public JasperReport get(String name) {
+        if (!hotReload) return reports.computeIfAbsent(name, this::load).report();
+
+        return reports.compute(name, (key, current) ->
+                current != null && current.lastModified() == templateLastModified(key) ? current : load(key)
+        ).report();
+    }
+
+    public JasperPrint fill(String name, Map<String, Object> parameters, JRDataSource dataSource) throws JRException {
+        JasperReport report = get(name);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return JasperFillManager.fillReport(report, parameters, dataSource);
+        } finally {
+            sample.stop(timer("reports.fill", name));
+        }
+    }
+
+    public void exportToPdf(String name, JasperPrint print, OutputStream outputStream) throws JRException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            JasperExportManager.exportReportToPdfStream(print, outputStream);
+        } finally {
+            sample.stop(timer("reports.export", name));
+        }
+    }
+
+    private LoadedReport load(String name) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // Precompiled .jasper files are only trusted when the sources are not being edited
+            URL compiled = getClass().getResource(TEMPLATES_DIR + name + ".jasper");
+            if (!hotReload && compiled != null) {
+                logger.debug("Loading precompiled report {}", name);
+                return new LoadedReport((JasperReport) JRLoader.loadObject(compiled), 0L);
+            }
+
+            long lastModified = templateLastModified(name);
+            try (InputStream source = getClass().getResourceAsStream(TEMPLATES_DIR + name + ".jrxml")) {
+                if (source == null) throw new IllegalStateException("Template file not found: " + TEMPLATES_DIR + name + ".jrxml");
+                logger.debug("Compiling report {}", name);
+                return new LoadedReport(JasperCompileManager.compileReport(source), lastModified);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Error loading report " + name + "!", e);
+        } finally {
+            sample.stop(timer("reports.compile", name));
+        }
+    }
+
+    private long templateLastModified(String name) {
+        URL source = getClass().getResource(TEMPLATES_DIR + name + ".jrxml");
+        if (source == null || !"file".equals(source.getProtocol())) return 0L;
+        try {
+            return Files.getLastModifiedTime(Path.of(source.toURI())).toMillis();
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+
+    private Timer timer(String metric, String name) {
+        return Timer.builder(metric).tag("report", name).register(meterRegistry);
+    }
+
+    private record LoadedReport(JasperReport report, long lastModified) {
+    }
+}
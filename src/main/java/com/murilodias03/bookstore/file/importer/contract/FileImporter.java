@@ -3,10 +3,29 @@ package com.murilodias03.bookstore.file.importer.contract;
 import com.murilodias03.bookstore.data.dto.PersonDTO;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface FileImporter {
 
-    List<PersonDTO> importFile(InputStream inputStream) throws Exception;
+    // rows holds where each person sits in the file, as the user sees it: the 1-based line of a CSV or row of a sheet,
+    // so the header is row 1
+    interface ChunkConsumer {
 
-}
\ No newline at end of file
+        void accept(List<PersonDTO> people, List<Long> rows);
+    }
+
+    void importRows(InputStream inputStream, int chunkSize, ChunkConsumer chunkConsumer) throws Exception;
+
+    default void importFile(InputStream inputStream, int chunkSize, Consumer<List<PersonDTO>> chunkConsumer) throws Exception {
+        importRows(inputStream, chunkSize, (people, rows) -> chunkConsumer.accept(people));
+    }
+
+    default List<PersonDTO> importFile(InputStream inputStream) throws Exception {
+        List<PersonDTO> people = new ArrayList<>();
+        importFile(inputStream, 1000, people::addAll);
+        return people;
+    }
+
+}
@@ -3,45 +3,63 @@ package com.murilodias03.bookstore.file.importer.impl;
 import com.murilodias03.bookstore.data.dto.PersonDTO;
 import com.murilodias03.bookstore.file.importer.contract.FileImporter;
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.io.input.BOMInputStream;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 @Component
 public class CsvImporter implements FileImporter {
 
+    private static final CSVFormat CSV_FORMAT = CSVFormat.Builder.create()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
     @Override
-    public List<PersonDTO> importFile(InputStream inputStream) throws Exception {
-        CSVFormat format = CSVFormat.Builder.create()
-                .setHeader()
-                .setSkipHeaderRecord(true)
-                .setIgnoreEmptyLines(true)
-                .setTrim(true)
-                .build();
-
-        Iterable<CSVRecord> records = format.parse(new InputStreamReader(inputStream));
-        
-        return parseRecordsToPersonDTOs(records);
-    }
+    public void importRows(InputStream inputStream, int chunkSize, ChunkConsumer chunkConsumer) throws Exception {
+        // Spreadsheet tools often prepend a BOM, which would otherwise end up in the first header name
+        InputStream withoutBom = BOMInputStream.builder().setInputStream(inputStream).get();
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
 
-    private List<PersonDTO> parseRecordsToPersonDTOs(Iterable<CSVRecord> records) {
-
-        List<PersonDTO> people = new ArrayList<>();
-        for (CSVRecord record : records) {
-            PersonDTO personDTO = new PersonDTO();
-            personDTO.setFirstName(record.get("first_name"));
-            personDTO.setLastName(record.get("last_name"));
-            personDTO.setAddress(record.get("address"));
-            personDTO.setGender(record.get("gender"));
-            personDTO.setEnabled(true);
-            people.add(personDTO);
+        try (CSVParser parser = CSV_FORMAT.parse(new BufferedReader(new InputStreamReader(withoutBom, decoder)))) {
+            List<PersonDTO> chunk = new ArrayList<>(chunkSize);
+            List<Long> rows = new ArrayList<>(chunkSize);
+            for (CSVRecord record : parser) {
+                chunk.add(parseRecordToPersonDTO(record));
+                // The line the record ends on, which accounts for skipped empty lines and quoted line breaks
+                rows.add(parser.getCurrentLineNumber());
+                if (chunk.size() == chunkSize) {
+                    chunkConsumer.accept(chunk, rows);
+                    chunk = new ArrayList<>(chunkSize);
+                    rows = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) chunkConsumer.accept(chunk, rows);
         }
+    }
 
-        return people;
+    private PersonDTO parseRecordToPersonDTO(CSVRecord record) {
+        PersonDTO personDTO = new PersonDTO();
+        personDTO.setFirstName(record.get("first_name"));
+        personDTO.setLastName(record.get("last_name"));
+        personDTO.setAddress(record.get("address"));
+        personDTO.setGender(record.get("gender"));
+        personDTO.setEnabled(true);
+        return personDTO;
     }
 
-}
\ No newline at end of file
+}
@@ -2,57 +2,122 @@ package com.murilodias03.bookstore.file.importer.impl;
 
 import com.murilodias03.bookstore.data.dto.PersonDTO;
 import com.murilodias03.bookstore.file.importer.contract.FileImporter;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
 @Component
 public class XlsxImporter implements FileImporter {
 
-    @Override
-    public List<PersonDTO> importFile(InputStream inputStream) throws Exception {
+    private static final int COLUMNS = 4;
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
-            XSSFSheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
+    @Override
+    public void importRows(InputStream inputStream, int chunkSize, ChunkConsumer chunkConsumer) throws Exception {
+        // OPCPackage reads a file lazily, while opening a stream would buffer the whole zip in memory
+        Path tempFile = Files.createTempFile("people-import-", ".xlsx");
+        try {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
 
-            if (rowIterator.hasNext()) rowIterator.next();
+            try (OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                var sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+                var rows = new RowHandler(chunkSize, chunkConsumer);
 
-            return parseRowsToPersonDTOList(rowIterator);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) return;
 
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), sharedStrings, rows, false));
+                    parser.parse(new InputSource(sheet));
+                }
+                rows.flush();
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
     }
 
-    private List<PersonDTO> parseRowsToPersonDTOList(Iterator<Row> rowIterator) {
-        List<PersonDTO> people = new ArrayList<>();
-        while (rowIterator.hasNext()) {
-            Row row = rowIterator.next();
-            if (isRowValid(row)) {
-                people.add(parseRowToPersonDTO(row));
+    private static class RowHandler implements SheetContentsHandler {
+
+        private final int chunkSize;
+        private final ChunkConsumer chunkConsumer;
+        private final String[] cells = new String[COLUMNS];
+        private List<PersonDTO> chunk;
+        private List<Long> rows;
+        private boolean headerRead;
+
+        RowHandler(int chunkSize, ChunkConsumer chunkConsumer) {
+            this.chunkSize = chunkSize;
+            this.chunkConsumer = chunkConsumer;
+            this.chunk = new ArrayList<>(chunkSize);
+            this.rows = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null) return;
+            int column = new CellReference(cellReference).getCol();
+            if (column < COLUMNS) cells[column] = formattedValue;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!headerRead) {
+                headerRead = true;
+                return;
             }
+            if (!isRowValid()) return;
+
+            chunk.add(parseRowToPersonDTO());
+            // rowNum is the 0-based sheet row, so blank rows the sheet omits still count towards the reported row
+            rows.add(rowNum + 1L);
+            if (chunk.size() == chunkSize) flush();
         }
-        return people;
-    }
 
-    private PersonDTO parseRowToPersonDTO(Row row) {
-        PersonDTO personDTO = new PersonDTO();
-        personDTO.setFirstName(row.getCell(0).getStringCellValue());
-        personDTO.setLastName(row.getCell(1).getStringCellValue());
-        personDTO.setAddress(row.getCell(2).getStringCellValue());
-        personDTO.setGender(row.getCell(3).getStringCellValue());
-        personDTO.setEnabled(true);
-        return personDTO;
-    }
+        void flush() {
+            if (chunk.isEmpty()) return;
+            chunkConsumer.accept(chunk, rows);
+            chunk = new ArrayList<>(chunkSize);
+            rows = new ArrayList<>(chunkSize);
+        }
+
+        private PersonDTO parseRowToPersonDTO() {
+            PersonDTO personDTO = new PersonDTO();
+            personDTO.setFirstName(cells[0]);
+            personDTO.setLastName(cells[1]);
+            personDTO.setAddress(cells[2]);
+            personDTO.setGender(cells[3]);
+            personDTO.setEnabled(true);
+            return personDTO;
+        }
 
-    private static boolean isRowValid(Row row) {
-        return row.getCell(0) != null && row.getCell(0).getCellType() != CellType.BLANK;
+        private boolean isRowValid() {
+            return cells[0] != null && !cells[0].isBlank();
+        }
     }
 
 }
@@ -0,0 +1,87 @@
+package com.murilodias03.bookstore.hateoas;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+public class LinkTemplates {
+
+    private static final long ID_PLACEHOLDER = 918273645546372819L;
+    private static final String ID_TOKEN = String.valueOf(ID_PLACEHOLDER);
+    private static final Pattern ID_TOKEN_PATTERN = Pattern.compile(ID_TOKEN, Pattern.LITERAL);
+
+    // The base URI comes from the Host header, so the cache must not grow with whatever clients send.
+    private static final int MAX_BASE_URIS = 32;
+
+    private final Function<Long, List<Link>> linkFactory;
+    private final Map<String, Bound> templatesByBaseUri = new ConcurrentHashMap<>();
+
+    public LinkTemplates(Function<Long, List<Link>> linkFactory) {
+        this.linkFactory = linkFactory;
+    }
+
+    public Bound forCurrentRequest() {
+        String baseUri = currentBaseUri();
+        Bound bound = templatesByBaseUri.get(baseUri);
+        if (bound != null) return bound;
+
+        if (templatesByBaseUri.size() >= MAX_BASE_URIS) templatesByBaseUri.clear();
+        return templatesByBaseUri.computeIfAbsent(baseUri, key -> compile());
+    }
+
+    private Bound compile() {
+        List<Link> resolved = linkFactory.apply(ID_PLACEHOLDER);
+        List<LinkTemplate> templates = new ArrayList<>(resolved.size());
+        for (Link link : resolved) {
+            templates.add(new LinkTemplate(link, ID_TOKEN_PATTERN.split(link.getHref(), -1)));
+        }
+        return new Bound(templates);
+    }
+
+    private static String currentBaseUri() {
+        if (RequestContextHolder.getRequestAttributes() == null) return "";
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+    }
+
+    public final class Bound {
+
+        private final List<LinkTemplate> templates;
+
+        private Bound(List<LinkTemplate> templates) {
+            this.templates = templates;
+        }
+
+        public void addTo(RepresentationModel<?> model, Long id) {
+            if (id == null) {
+                model.add(linkFactory.apply(null));
+                return;
+            }
+
+            String value = id.toString();
+            for (LinkTemplate template : templates) {
+                model.add(template.expand(value));
+            }
+        }
+    }
+
+    private record LinkTemplate(Link link, String[] parts) {
+
+        Link expand(String id) {
+            if (parts.length == 1) return link;
+
+            StringBuilder href = new StringBuilder(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                href.append(id).append(parts[i]);
+            }
+            return link.withHref(href.toString());
+        }
+    }
+}
@@ -2,25 +2,55 @@ package com.murilodias03.bookstore.mapper;
 
 import com.github.dozermapper.core.DozerBeanMapperBuilder;
 import com.github.dozermapper.core.Mapper;
+import com.murilodias03.bookstore.data.dto.BookDTO;
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.mapper.contract.EntityConverter;
+import com.murilodias03.bookstore.mapper.impl.BookConverter;
+import com.murilodias03.bookstore.mapper.impl.PersonConverter;
+import com.murilodias03.bookstore.model.Book;
+import com.murilodias03.bookstore.model.Person;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class ObjectMapper {
 
     private static final Mapper mapper = DozerBeanMapperBuilder.buildDefault();
 
+    // Hot entity <-> DTO pairs use plain getter/setter converters; anything else falls back to Dozer.
+    private static final Map<Class<?>, Map<Class<?>, EntityConverter<?, ?>>> converters = Map.of(
+            Person.class, Map.of(PersonDTO.class, converter(PersonConverter::toDTO)),
+            PersonDTO.class, Map.of(Person.class, converter(PersonConverter::toEntity)),
+            Book.class, Map.of(BookDTO.class, converter(BookConverter::toDTO)),
+            BookDTO.class, Map.of(Book.class, converter(BookConverter::toEntity))
+    );
+
     public static <O, D> D parseObject(O origin, Class<D> destination) {
+        EntityConverter<O, D> converter = findConverter(origin, destination);
+        if (converter != null) return converter.convert(origin);
         return mapper.map(origin, destination);
     }
 
     public static <O, D> List<D> parseListObjects(List<O> origin, Class<D> destination) {
 
-        List<D> destinationObjects = new ArrayList<D>();
-        for (Object o : origin) {
-            destinationObjects.add(mapper.map(o, destination));
+        List<D> destinationObjects = new ArrayList<D>(origin.size());
+        for (O o : origin) {
+            destinationObjects.add(parseObject(o, destination));
         }
 
         return destinationObjects;
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private static <O, D> EntityConverter<O, D> findConverter(O origin, Class<D> destination) {
+        if (origin == null) return null;
+        Map<Class<?>, EntityConverter<?, ?>> byDestination = converters.get(origin.getClass());
+        if (byDestination == null) return null;
+        return (EntityConverter<O, D>) byDestination.get(destination);
+    }
+
+    private static <O, D> EntityConverter<O, D> converter(EntityConverter<O, D> converter) {
+        return converter;
+    }
+}
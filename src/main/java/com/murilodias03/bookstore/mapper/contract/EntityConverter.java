@@ -0,0 +1,8 @@
+package com.murilodias03.bookstore.mapper.contract;
+
+@FunctionalInterface
+public interface EntityConverter<O, D> {
+
+    D convert(O origin);
+
+}
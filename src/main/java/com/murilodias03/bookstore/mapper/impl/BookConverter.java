@@ -0,0 +1,30 @@
+package com.murilodias03.bookstore.mapper.impl;
+
+import com.murilodias03.bookstore.data.dto.BookDTO;
+import com.murilodias03.bookstore.model.Book;
+
+public final class BookConverter {
+
+    private BookConverter() {
+    }
+
+    public static BookDTO toDTO(Book entity) {
+        BookDTO dto = new BookDTO();
+        dto.setId(entity.getId());
+        dto.setAuthor(entity.getAuthor());
+        dto.setLaunchDate(entity.getLaunchDate());
+        dto.setPrice(entity.getPrice());
+        dto.setTitle(entity.getTitle());
+        return dto;
+    }
+
+    public static Book toEntity(BookDTO dto) {
+        Book entity = new Book();
+        entity.setId(dto.getId());
+        entity.setAuthor(dto.getAuthor());
+        entity.setLaunchDate(dto.getLaunchDate());
+        entity.setPrice(dto.getPrice());
+        entity.setTitle(dto.getTitle());
+        return entity;
+    }
+}
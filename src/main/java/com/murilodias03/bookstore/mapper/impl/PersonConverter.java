@@ -0,0 +1,41 @@
+package com.murilodias03.bookstore.mapper.impl;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.model.Person;
+import org.hibernate.Hibernate;
+
+public final class PersonConverter {
+
+    private PersonConverter() {
+    }
+
+    public static PersonDTO toDTO(Person entity) {
+        PersonDTO dto = new PersonDTO();
+        dto.setId(entity.getId());
+        dto.setFirstName(entity.getFirstName());
+        dto.setLastName(entity.getLastName());
+        dto.setAddress(entity.getAddress());
+        dto.setGender(entity.getGender());
+        dto.setEnabled(entity.getEnabled());
+        dto.setProfileUrl(entity.getProfileUrl());
+        dto.setPhotoUrl(entity.getPhotoUrl());
+        // Only hand over books that were actually fetched; touching a lazy collection here
+        // would issue one extra query per row on paged listings.
+        if (Hibernate.isInitialized(entity.getBooks())) dto.setBooks(entity.getBooks());
+        return dto;
+    }
+
+    public static Person toEntity(PersonDTO dto) {
+        Person entity = new Person();
+        entity.setId(dto.getId());
+        entity.setFirstName(dto.getFirstName());
+        entity.setLastName(dto.getLastName());
+        entity.setAddress(dto.getAddress());
+        entity.setGender(dto.getGender());
+        entity.setEnabled(dto.getEnabled());
+        entity.setProfileUrl(dto.getProfileUrl());
+        entity.setPhotoUrl(dto.getPhotoUrl());
+        entity.setBooks(dto.getBooks());
+        return entity;
+    }
+}
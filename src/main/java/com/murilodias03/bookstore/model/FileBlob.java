@@ -0,0 +1,62 @@
+package com.murilodias03.bookstore.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity
+@Table(name = "file_blob")
+public class FileBlob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    public FileBlob() {
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        FileBlob fileBlob = (FileBlob) o;
+        return Objects.equals(getSha256(), fileBlob.getSha256()) && Objects.equals(getSize(), fileBlob.getSize()) && Objects.equals(getRefCount(), fileBlob.getRefCount());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getSha256(), getSize(), getRefCount());
+    }
+}
@@ -13,7 +13,8 @@ public class Person implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_seq")
+    @SequenceGenerator(name = "person_seq", sequenceName = "person_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "first_name", nullable = false, length = 80)
@@ -37,7 +38,7 @@ public class Person implements Serializable {
     @Column(name = "photo_url")
     private String photoUrl;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "person_books",
             joinColumns = @JoinColumn(name = "person_id"),
@@ -116,6 +117,10 @@ public class Person implements Serializable {
         return books;
     }
 
+    public void setBooks(List<Book> books) {
+        this.books = books;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -1,7 +1,14 @@
 package com.murilodias03.bookstore.repositories;
 
 import com.murilodias03.bookstore.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    @Query("SELECT b FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT ('%',:term,'%')) OR LOWER(b.author) LIKE LOWER(CONCAT ('%',:term,'%'))")
+    Page<Book> findBooksByTitleOrAuthor(@Param("term") String term, Pageable pageable);
 }
\ No newline at end of file
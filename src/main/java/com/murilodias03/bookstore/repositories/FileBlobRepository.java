@@ -0,0 +1,29 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.model.FileBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    // Serializes storing a blob's file with deleting it once unreferenced, even while the row does not exist
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('file_blob:' || :sha256))", nativeQuery = true)
+    Integer lockContent(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO file_blob (sha256, size, ref_count) VALUES (:sha256, :size, 1)
+            ON CONFLICT (sha256) DO UPDATE SET ref_count = file_blob.ref_count + 1
+            """, nativeQuery = true)
+    void acquire(@Param("sha256") String sha256, @Param("size") long size);
+
+    @Modifying
+    @Query(value = "UPDATE file_blob SET ref_count = ref_count - 1 WHERE sha256 = :sha256", nativeQuery = true)
+    void release(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query(value = "DELETE FROM file_blob WHERE sha256 = :sha256 AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
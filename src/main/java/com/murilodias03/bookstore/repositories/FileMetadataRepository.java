@@ -0,0 +1,30 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.model.FileMetadata;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface FileMetadataRepository extends JpaRepository<FileMetadata, String> {
+
+    // Serializes writers of the same name until the transaction ends, even while the row does not exist yet
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:name))", nativeQuery = true)
+    Integer lockName(@Param("name") String name);
+
+    @Query("SELECT m.sha256 FROM FileMetadata m WHERE m.name = :name")
+    Optional<String> findSha256ByName(@Param("name") String name);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO file_metadata (name, sha256, size, updated_at) VALUES (:name, :sha256, :size, now())
+            ON CONFLICT (name) DO UPDATE SET sha256 = EXCLUDED.sha256, size = EXCLUDED.size, updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void upsert(@Param("name") String name, @Param("sha256") String sha256, @Param("size") long size);
+
+    @Modifying
+    @Query(value = "DELETE FROM file_metadata WHERE name = :name", nativeQuery = true)
+    int deleteByName(@Param("name") String name);
+}
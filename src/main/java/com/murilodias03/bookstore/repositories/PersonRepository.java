@@ -1,14 +1,34 @@
 package com.murilodias03.bookstore.repositories;
 
 import com.murilodias03.bookstore.model.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface PersonRepository extends JpaRepository<Person, Long> {
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PersonRepository extends JpaRepository<Person, Long>, PersonUpsertRepository {
+
+    String SEARCH_CONDITION = """
+            p.search_vector @@ to_tsquery('simple', :tsQuery)
+            OR lower(p.first_name || ' ' || p.last_name || ' ' || p.address) LIKE CONCAT('%', :term, '%')
+            """;
+
+    String SEARCH_QUERY = "SELECT p.* FROM person p WHERE " + SEARCH_CONDITION + """
+            ORDER BY ts_rank(p.search_vector, to_tsquery('simple', :tsQuery)) DESC,
+                     similarity(lower(p.first_name || ' ' || p.last_name || ' ' || p.address), :term) DESC,
+                     p.id
+            """;
+
+    String SEARCH_COUNT_QUERY = "SELECT count(*) FROM person p WHERE " + SEARCH_CONDITION;
 
     @Modifying(clearAutomatically = true)
     @Query("UPDATE Person p SET p.enabled = false WHERE p.id =:id")
@@ -16,4 +36,17 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
 
     @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%',:firstName,'%'))")
     Page<Person> findPeopleByName(@Param("firstName") String firstName, Pageable pageable);
+
+    @Query(value = SEARCH_QUERY, countQuery = SEARCH_COUNT_QUERY, nativeQuery = true)
+    Page<Person> searchPeople(@Param("term") String term, @Param("tsQuery") String tsQuery, Pageable pageable);
+
+    @EntityGraph(attributePaths = "books")
+    Optional<Person> findWithBooksById(Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Person p ORDER BY p.id")
+    Stream<Person> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.model.Person;
+
+import java.util.List;
+
+public interface PersonUpsertRepository {
+
+    List<Person> upsertAll(List<Person> people);
+}
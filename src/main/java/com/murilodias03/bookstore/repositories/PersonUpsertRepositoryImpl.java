@@ -0,0 +1,141 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.model.Person;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+public class PersonUpsertRepositoryImpl implements PersonUpsertRepository {
+
+    // Must match the allocationSize of person_seq so ids handed out here never overlap Hibernate's pool
+    private static final int ID_BLOCK_SIZE = 50;
+
+    // Namespace of the per-key advisory locks; the two-int key space never overlaps single bigint locks
+    private static final int UPSERT_LOCK_NAMESPACE = 0x7065_7273;
+
+    // One transaction-scoped lock per natural key, taken in a fixed order so concurrent imports cannot deadlock.
+    // Imports with disjoint keys run in parallel, two imports never both insert the same key
+    private static final String LOCK_QUERY = """
+            SELECT pg_advisory_xact_lock(?, k.key)
+            FROM (
+                SELECT DISTINCT hashtext(concat_ws('|', first_name, last_name, address)) AS key
+                FROM unnest(?::varchar[], ?::varchar[], ?::varchar[]) AS t(first_name, last_name, address)
+                ORDER BY key
+            ) k
+            """;
+
+    // The last occurrence of a natural key inside the batch wins. The natural key is not unique in person,
+    // so an existing key updates its oldest row, and rows whose data did not change are neither rewritten nor returned.
+    // enabled only defaults new rows: the importers always send true, and a re-import must not re-enable anyone
+    private static final String UPSERT_QUERY = """
+            WITH input AS (
+                SELECT *
+                FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::boolean[])
+                    WITH ORDINALITY AS t(id, first_name, last_name, address, gender, enabled, position)
+            ), latest AS (
+                SELECT DISTINCT ON (first_name, last_name, address) *
+                FROM input
+                ORDER BY first_name, last_name, address, position DESC
+            ), existing AS (
+                SELECT DISTINCT ON (p.first_name, p.last_name, p.address) p.id, l.position
+                FROM latest l
+                JOIN person p ON p.first_name = l.first_name AND p.last_name = l.last_name AND p.address = l.address
+                ORDER BY p.first_name, p.last_name, p.address, p.id
+            ), updated AS (
+                UPDATE person p
+                SET gender = l.gender
+                FROM existing e
+                JOIN latest l ON l.position = e.position
+                WHERE p.id = e.id AND p.gender IS DISTINCT FROM l.gender
+                RETURNING p.id, p.first_name, p.last_name, p.address, p.gender, p.enabled,
+                    p.wikipedia_profile_url, p.photo_url
+            ), inserted AS (
+                INSERT INTO person (id, first_name, last_name, address, gender, enabled)
+                SELECT l.id, l.first_name, l.last_name, l.address, l.gender, coalesce(l.enabled, true)
+                FROM latest l
+                WHERE NOT EXISTS (SELECT 1 FROM existing e WHERE e.position = l.position)
+                RETURNING id, first_name, last_name, address, gender, enabled, wikipedia_profile_url, photo_url
+            )
+            SELECT * FROM updated
+            UNION ALL
+            SELECT * FROM inserted
+            """;
+
+    private static final RowMapper<Person> PERSON_MAPPER = (rs, rowNum) -> {
+        Person person = new Person();
+        person.setId(rs.getLong("id"));
+        person.setFirstName(rs.getString("first_name"));
+        person.setLastName(rs.getString("last_name"));
+        person.setAddress(rs.getString("address"));
+        person.setGender(rs.getString("gender"));
+        person.setEnabled(rs.getBoolean("enabled"));
+        person.setProfileUrl(rs.getString("wikipedia_profile_url"));
+        person.setPhotoUrl(rs.getString("photo_url"));
+        return person;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PersonUpsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Person> upsertAll(List<Person> people) {
+        if (people.isEmpty()) return List.of();
+
+        int size = people.size();
+        Long[] ids = allocateIds(size);
+        String[] firstNames = new String[size];
+        String[] lastNames = new String[size];
+        String[] addresses = new String[size];
+        String[] genders = new String[size];
+        Boolean[] enabled = new Boolean[size];
+        for (int i = 0; i < size; i++) {
+            Person person = people.get(i);
+            firstNames[i] = person.getFirstName();
+            lastNames[i] = person.getLastName();
+            addresses[i] = person.getAddress();
+            genders[i] = person.getGender();
+            enabled[i] = person.getEnabled();
+        }
+
+        // Held until the caller's transaction ends, which covers the lookup and the insert
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOCK_QUERY);
+            statement.setInt(1, UPSERT_LOCK_NAMESPACE);
+            statement.setArray(2, connection.createArrayOf("varchar", firstNames));
+            statement.setArray(3, connection.createArrayOf("varchar", lastNames));
+            statement.setArray(4, connection.createArrayOf("varchar", addresses));
+            return statement;
+        }, rs -> {
+        });
+
+        // A single statement per chunk: the arrays travel as six parameters however many rows there are
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPSERT_QUERY);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("varchar", firstNames));
+            statement.setArray(3, connection.createArrayOf("varchar", lastNames));
+            statement.setArray(4, connection.createArrayOf("varchar", addresses));
+            statement.setArray(5, connection.createArrayOf("varchar", genders));
+            statement.setArray(6, connection.createArrayOf("boolean", enabled));
+            return statement;
+        }, PERSON_MAPPER);
+    }
+
+    // Same scheme as Hibernate's pooled optimizer: every nextval reserves the ID_BLOCK_SIZE ids ending at it
+    private Long[] allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval('person_id_seq') FROM generate_series(1, ?)", Long.class, blocks);
+
+        Long[] ids = new Long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = highs.get(i / ID_BLOCK_SIZE) - ID_BLOCK_SIZE + 1 + i % ID_BLOCK_SIZE;
+        }
+        return ids;
+    }
+}
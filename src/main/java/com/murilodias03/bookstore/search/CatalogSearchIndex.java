@@ -0,0 +1,147 @@
+package com.murilodias03.bookstore.search;
+
+import com.murilodias03.bookstore.model.Book;
+import com.murilodias03.bookstore.model.Person;
+import com.murilodias03.bookstore.repositories.BookRepository;
+import com.murilodias03.bookstore.repositories.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.HashSet;
+
+@Component
+public class CatalogSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    private static final int WARM_UP_PAGE_SIZE = 500;
+
+    private final PersonRepository personRepository;
+    private final BookRepository bookRepository;
+    private final boolean enabled;
+
+    private final NGramIndex people = new NGramIndex();
+    private final NGramIndex books = new NGramIndex();
+
+    // Ids written through the hooks while warming up; the warm-up must not overwrite them with stale rows.
+    private final Set<Long> touchedPeople = new HashSet<>();
+    private final Set<Long> touchedBooks = new HashSet<>();
+
+    private volatile boolean ready = false;
+
+    public CatalogSearchIndex(PersonRepository personRepository,
+                              BookRepository bookRepository,
+                              @Value("${search.index.enabled:false}") boolean enabled) {
+        this.personRepository = personRepository;
+        this.bookRepository = bookRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("catalog-search-index-warm-up").start(this::build);
+    }
+
+    public Optional<List<Long>> searchPeople(String query) {
+        if (!ready) return Optional.empty();
+        return Optional.of(people.search(query));
+    }
+
+    public Optional<List<Long>> searchBooks(String query) {
+        if (!ready) return Optional.empty();
+        return Optional.of(books.search(query));
+    }
+
+    public void indexPerson(Person person) {
+        if (!enabled || person == null || person.getId() == null) return;
+        synchronized (touchedPeople) {
+            if (!ready) touchedPeople.add(person.getId());
+            people.put(person.getId(), person.getFirstName(), person.getLastName());
+        }
+    }
+
+    public void removePerson(Long id) {
+        if (!enabled || id == null) return;
+        synchronized (touchedPeople) {
+            if (!ready) touchedPeople.add(id);
+            people.remove(id);
+        }
+    }
+
+    public void indexBook(Book book) {
+        if (!enabled || book == null || book.getId() == null) return;
+        synchronized (touchedBooks) {
+            if (!ready) touchedBooks.add(book.getId());
+            books.put(book.getId(), book.getTitle(), book.getAuthor());
+        }
+    }
+
+    public void removeBook(Long id) {
+        if (!enabled || id == null) return;
+        synchronized (touchedBooks) {
+            if (!ready) touchedBooks.add(id);
+            books.remove(id);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        try {
+            Pageable pageable = PageRequest.of(0, WARM_UP_PAGE_SIZE, Sort.by("id"));
+            Page<Person> personPage;
+            do {
+                personPage = personRepository.findAll(pageable);
+                synchronized (touchedPeople) {
+                    for (Person person : personPage) {
+                        if (!touchedPeople.contains(person.getId())) {
+                            people.put(person.getId(), person.getFirstName(), person.getLastName());
+                        }
+                    }
+                }
+                pageable = personPage.nextPageable();
+            } while (personPage.hasNext());
+
+            pageable = PageRequest.of(0, WARM_UP_PAGE_SIZE, Sort.by("id"));
+            Page<Book> bookPage;
+            do {
+                bookPage = bookRepository.findAll(pageable);
+                synchronized (touchedBooks) {
+                    for (Book book : bookPage) {
+                        if (!touchedBooks.contains(book.getId())) {
+                            books.put(book.getId(), book.getTitle(), book.getAuthor());
+                        }
+                    }
+                }
+                pageable = bookPage.nextPageable();
+            } while (bookPage.hasNext());
+
+            synchronized (touchedPeople) {
+                synchronized (touchedBooks) {
+                    ready = true;
+                    touchedPeople.clear();
+                    touchedBooks.clear();
+                }
+            }
+            logger.info("Catalog search index ready with {} people and {} books in {} ms",
+                    people.size(), books.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Could not build the catalog search index, searches will use the database!", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.murilodias03.bookstore.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class NGramIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, String> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long id, String... fields) {
+        // Missing fields are skipped, String.join would index them as the word "null"
+        StringJoiner joined = new StringJoiner(" ");
+        for (String field : fields) {
+            if (field != null && !field.isBlank()) joined.add(field);
+        }
+        String document = normalize(joined.toString());
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            documents.put(id, document);
+            for (String gram : grams(document)) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String query) {
+        String term = normalize(query);
+        if (term.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = candidates(term);
+            List<Long> matches = new ArrayList<>(candidates.size());
+            for (Long id : candidates) {
+                if (term.length() <= GRAM_SIZE || documents.get(id).contains(term)) matches.add(id);
+            }
+            matches.sort(Comparator.comparing((Long id) -> documents.get(id)).thenComparing(id -> id));
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> candidates(String term) {
+        if (term.length() <= GRAM_SIZE) return postings.getOrDefault(term, Set.of());
+
+        Set<Long> smallest = null;
+        List<Set<Long>> others = new ArrayList<>();
+        for (int i = 0; i + GRAM_SIZE <= term.length(); i++) {
+            Set<Long> ids = postings.get(term.substring(i, i + GRAM_SIZE));
+            if (ids == null) return Set.of();
+            if (smallest == null || ids.size() < smallest.size()) {
+                if (smallest != null) others.add(smallest);
+                smallest = ids;
+            } else {
+                others.add(ids);
+            }
+        }
+
+        Set<Long> result = new HashSet<>(smallest);
+        for (Set<Long> ids : others) {
+            result.retainAll(ids);
+            if (result.isEmpty()) break;
+        }
+        return result;
+    }
+
+    private void removeInternal(Long id) {
+        String previous = documents.remove(id);
+        if (previous == null) return;
+        for (String gram : grams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) continue;
+            ids.remove(id);
+            if (ids.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    // Every substring up to GRAM_SIZE is indexed so short typeahead queries are a single lookup.
+    private static Set<String> grams(String document) {
+        Set<String> grams = new HashSet<>();
+        for (int size = 1; size <= GRAM_SIZE; size++) {
+            for (int i = 0; i + size <= document.length(); i++) {
+                grams.add(document.substring(i, i + size));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) return "";
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
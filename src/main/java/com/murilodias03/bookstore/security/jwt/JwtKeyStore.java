@@ -0,0 +1,252 @@
+package com.murilodias03.bookstore.security.jwt;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.ECDSAKeyProvider;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class JwtKeyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyStore.class);
+
+    private static final String PRIVATE_KEY_SUFFIX = "-private.pem";
+    private static final String PUBLIC_KEY_SUFFIX = "-public.pem";
+
+    public enum SigningAlgorithm {
+        HS256(null), RS256("RSA"), ES256("EC");
+
+        private final String keyAlgorithm;
+
+        SigningAlgorithm(String keyAlgorithm) {
+            this.keyAlgorithm = keyAlgorithm;
+        }
+    }
+
+    public record SigningKey(String kid, Algorithm algorithm) {
+    }
+
+    // Swapped as a whole on reload, so a lookup never sees a half loaded directory
+    private record KeySet(Map<String, PublicKey> publicKeys, SigningKey signingKey) {
+    }
+
+    private final VerifiedTokenCache tokenCache;
+    private final SigningAlgorithm signingAlgorithm;
+    private final Path directory;
+    private final long reloadIntervalSeconds;
+    private final String activeKid;
+
+    private volatile KeySet keySet = new KeySet(Map.of(), null);
+    private ScheduledExecutorService reloader;
+
+    public JwtKeyStore(VerifiedTokenCache tokenCache,
+                       @Value("${security.jwt.signing.algorithm:HS256}") SigningAlgorithm signingAlgorithm,
+                       @Value("${security.jwt.keys.directory:}") String directory,
+                       @Value("${security.jwt.keys.reload-interval-seconds:60}") long reloadIntervalSeconds,
+                       @Value("${security.jwt.keys.active-kid:}") String activeKid) {
+        this.tokenCache = tokenCache;
+        this.signingAlgorithm = signingAlgorithm;
+        this.directory = directory.isBlank() ? null : Paths.get(directory).toAbsolutePath().normalize();
+        this.reloadIntervalSeconds = reloadIntervalSeconds;
+        this.activeKid = activeKid;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isAsymmetric()) return;
+        if (directory == null) {
+            throw new IllegalStateException("security.jwt.keys.directory is required for " + signingAlgorithm + "!");
+        }
+
+        reload();
+        if (keySet.publicKeys().isEmpty()) {
+            throw new IllegalStateException("No " + signingAlgorithm + " verification keys found in " + directory + "!");
+        }
+        if (reloadIntervalSeconds > 0) {
+            reloader = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("jwt-keys-").daemon().factory());
+            reloader.scheduleWithFixedDelay(this::reload, reloadIntervalSeconds, reloadIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reloader != null) reloader.shutdownNow();
+    }
+
+    public boolean isAsymmetric() {
+        return signingAlgorithm != SigningAlgorithm.HS256;
+    }
+
+    // Built once; the providers look keys up in the current key set, so rotation needs no new verifier
+    public Algorithm verificationAlgorithm() {
+        return switch (signingAlgorithm) {
+            case RS256 -> Algorithm.RSA256(new RSAKeyProvider() {
+                @Override
+                public RSAPublicKey getPublicKeyById(String kid) {
+                    return (RSAPublicKey) publicKey(kid);
+                }
+
+                @Override
+                public RSAPrivateKey getPrivateKey() {
+                    return null;
+                }
+
+                @Override
+                public String getPrivateKeyId() {
+                    return null;
+                }
+            });
+            case ES256 -> Algorithm.ECDSA256(new ECDSAKeyProvider() {
+                @Override
+                public ECPublicKey getPublicKeyById(String kid) {
+                    return (ECPublicKey) publicKey(kid);
+                }
+
+                @Override
+                public ECPrivateKey getPrivateKey() {
+                    return null;
+                }
+
+                @Override
+                public String getPrivateKeyId() {
+                    return null;
+                }
+            });
+            case HS256 -> throw new IllegalStateException("HS256 is verified with the shared secret!");
+        };
+    }
+
+    // A token without a kid has no key: verification then fails with a SignatureVerificationException,
+    // while the Map.copyOf lookup would throw a NullPointerException
+    private PublicKey publicKey(String kid) {
+        return kid == null ? null : keySet.publicKeys().get(kid);
+    }
+
+    // Key and kid come from one snapshot, so a rotation can never pair the new key with the old kid
+    public SigningKey signingKey() {
+        SigningKey signingKey = keySet.signingKey();
+        if (signingKey == null) {
+            throw new IllegalStateException("No " + signingAlgorithm + " signing key found in " + directory + "!");
+        }
+        return signingKey;
+    }
+
+    public void reload() {
+        try {
+            KeySet loaded = load();
+            KeySet previous = keySet;
+            keySet = loaded;
+
+            // Tokens signed with a withdrawn key must stop being accepted straight from the cache
+            if (!loaded.publicKeys().keySet().containsAll(previous.publicKeys().keySet())) tokenCache.clear();
+            if (!loaded.publicKeys().keySet().equals(previous.publicKeys().keySet())) {
+                logger.info("Loaded JWT verification keys {} and signing key {}", loaded.publicKeys().keySet(),
+                        loaded.signingKey() != null ? loaded.signingKey().kid() : null);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keep serving with the keys we have rather than locking everybody out
+            logger.error("Could not reload JWT keys from " + directory, e);
+        }
+    }
+
+    private KeySet load() throws IOException {
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        Map<String, Path> privateKeys = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.pem")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PUBLIC_KEY_SUFFIX)) {
+                    publicKeys.put(name.substring(0, name.length() - PUBLIC_KEY_SUFFIX.length()), readPublicKey(file));
+                } else if (name.endsWith(PRIVATE_KEY_SUFFIX)) {
+                    privateKeys.put(name.substring(0, name.length() - PRIVATE_KEY_SUFFIX.length()), file);
+                }
+            }
+        }
+
+        String signingKid = activeKid.isBlank() ? newestActivatedKid(privateKeys) : activeKid;
+        SigningKey signingKey = null;
+        if (signingKid != null && privateKeys.containsKey(signingKid)) {
+            if (!publicKeys.containsKey(signingKid)) {
+                throw new IllegalStateException("Signing key " + signingKid + " has no " + signingKid + PUBLIC_KEY_SUFFIX + "!");
+            }
+            signingKey = new SigningKey(signingKid, signingAlgorithm(readPrivateKey(privateKeys.get(signingKid))));
+        }
+        return new KeySet(Map.copyOf(publicKeys), signingKey);
+    }
+
+    // A new key only starts signing once every replica has had a reload interval to pick up its public half;
+    // until one is that old, the oldest key present is used
+    private String newestActivatedKid(Map<String, Path> privateKeys) throws IOException {
+        long activationCutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(reloadIntervalSeconds);
+        String newestActivated = null;
+        long newestActivatedModified = Long.MIN_VALUE;
+        String oldest = null;
+        long oldestModified = Long.MAX_VALUE;
+        for (Map.Entry<String, Path> privateKey : privateKeys.entrySet()) {
+            long modified = Files.getLastModifiedTime(privateKey.getValue()).toMillis();
+            if (modified <= activationCutoff && modified > newestActivatedModified) {
+                newestActivated = privateKey.getKey();
+                newestActivatedModified = modified;
+            }
+            if (modified < oldestModified) {
+                oldest = privateKey.getKey();
+                oldestModified = modified;
+            }
+        }
+        return newestActivated != null ? newestActivated : oldest;
+    }
+
+    private Algorithm signingAlgorithm(PrivateKey privateKey) {
+        return signingAlgorithm == SigningAlgorithm.RS256
+                ? Algorithm.RSA256(null, (RSAPrivateKey) privateKey)
+                : Algorithm.ECDSA256(null, (ECPrivateKey) privateKey);
+    }
+
+    private PublicKey readPublicKey(Path file) throws IOException {
+        try {
+            return KeyFactory.getInstance(signingAlgorithm.keyAlgorithm).generatePublic(new X509EncodedKeySpec(pem(file)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid " + signingAlgorithm + " public key " + file.getFileName(), e);
+        }
+    }
+
+    private PrivateKey readPrivateKey(Path file) throws IOException {
+        try {
+            return KeyFactory.getInstance(signingAlgorithm.keyAlgorithm).generatePrivate(new PKCS8EncodedKeySpec(pem(file)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid " + signingAlgorithm + " private key " + file.getFileName(), e);
+        }
+    }
+
+    private static byte[] pem(Path file) throws IOException {
+        String base64 = Files.readString(file).replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
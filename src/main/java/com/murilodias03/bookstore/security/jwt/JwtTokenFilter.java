@@ -1,5 +1,6 @@
 package com.murilodias03.bookstore.security.jwt;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -18,18 +19,24 @@ public class JwtTokenFilter extends GenericFilterBean {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
-    public JwtTokenFilter(JwtTokenProvider tokenProvider) {
+    private final VerifiedTokenCache tokenCache;
+
+    public JwtTokenFilter(JwtTokenProvider tokenProvider, VerifiedTokenCache tokenCache) {
         this.tokenProvider = tokenProvider;
+        this.tokenCache = tokenCache;
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain filter)
             throws IOException, ServletException {
         var token = tokenProvider.resolveToken((HttpServletRequest) request);
-        if (StringUtils.isNotBlank(token) && tokenProvider.validateToken(token)) {
-            Authentication authentication = tokenProvider.getAuthentication(token);
-            if (authentication != null) {
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.isNotBlank(token)) {
+            DecodedJWT decodedJWT = tokenCache.get(token, tokenProvider::decodeToken);
+            if (tokenProvider.validateToken(decodedJWT)) {
+                Authentication authentication = tokenProvider.getAuthentication(decodedJWT);
+                if (authentication != null) {
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         }
         filter.doFilter(request, response);
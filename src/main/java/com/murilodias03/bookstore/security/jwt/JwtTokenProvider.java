@@ -1,6 +1,7 @@
 package com.murilodias03.bookstore.security.jwt;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
@@ -9,10 +10,12 @@ import com.murilodias03.bookstore.exceptions.InvalidJwtAuthenticationException;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
@@ -25,21 +28,47 @@ import java.util.List;
 @Service
 public class JwtTokenProvider {
 
+    public enum AuthenticationMode {
+        // Loads the user on every request, so permission changes apply immediately
+        DATABASE,
+        // Trusts the verified roles claim; the principal cache, when enabled, still rejects disabled users
+        CLAIMS
+    }
+
     @Value("${security.jwt.token.secret-key:secret}")
     private String secretKey = "secret";
 
     @Value("${security.jwt.token.expire-lenght:3600000}")
     private long validityInMilliseconds = 3600000; // 1h
 
-    @Autowired
-    private UserDetailsService userDetailsService;
+    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final AuthenticationMode authenticationMode;
+    private final JwtKeyStore keyStore;
 
     Algorithm algorithm = null;
 
+    // Immutable and thread safe, so one instance serves every request
+    private JWTVerifier verifier;
+
+    public JwtTokenProvider(UserDetailsService userDetailsService,
+                            PrincipalCache principalCache,
+                            @Value("${security.jwt.authentication-mode:}") AuthenticationMode authenticationMode,
+                            JwtKeyStore keyStore) {
+        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        // Without the principal cache nothing in claims mode would notice a disabled user before the token expires
+        this.authenticationMode = authenticationMode != null ? authenticationMode
+                : principalCache.isEnabled() ? AuthenticationMode.CLAIMS : AuthenticationMode.DATABASE;
+        this.keyStore = keyStore;
+    }
+
     @PostConstruct
     protected void init() {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
-        algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        // With a key set, replicas that only verify need nothing but the public keys
+        algorithm = keyStore.isAsymmetric() ? keyStore.verificationAlgorithm() : Algorithm.HMAC256(secretKey.getBytes());
+        verifier = JWT.require(algorithm).build();
     }
     
     public TokenDTO createAccessToken(String username, List<String> roles) {
@@ -56,7 +85,6 @@ public class JwtTokenProvider {
             token = refreshToken.substring("Bearer ".length());
         }
 
-        JWTVerifier verifier = JWT.require(algorithm).build();
         DecodedJWT decodedJWT = verifier.verify(token);
 
         String username = decodedJWT.getSubject();
@@ -64,11 +92,27 @@ public class JwtTokenProvider {
         return createAccessToken(username, roles);
     }
 
-    public Authentication getAuthentication(String token) {
-        DecodedJWT decodedJWT = decodedToken(token);
-        UserDetails userDetails = this.userDetailsService
-                .loadUserByUsername(decodedJWT.getSubject());
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    // Verifies the signature once; validateToken and getAuthentication then work on the result
+    public DecodedJWT decodeToken(String token) {
+        return verifier.verify(token);
+    }
+
+    public Authentication getAuthentication(DecodedJWT decodedJWT) {
+        String username = decodedJWT.getSubject();
+        if (authenticationMode == AuthenticationMode.DATABASE) {
+            UserDetails userDetails = loadPrincipal(username);
+            if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) return null;
+            return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        }
+
+        List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of()
+                : roles.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+        UserDetails principal = principalCache.isEnabled()
+                ? loadPrincipal(username)
+                : User.withUsername(username).password("").authorities(authorities).build();
+        if (!principal.isEnabled() || !principal.isAccountNonLocked()) return null;
+        return new UsernamePasswordAuthenticationToken(principal, "", authorities);
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -77,9 +121,7 @@ public class JwtTokenProvider {
         return null;
     }
 
-    public boolean validateToken(String token) {
-        DecodedJWT decodedJWT = decodedToken(token);
-
+    public boolean validateToken(DecodedJWT decodedJWT) {
         try {
             return !decodedJWT.getExpiresAt().before(new Date());
         } catch (Exception e) {
@@ -87,33 +129,38 @@ public class JwtTokenProvider {
         }
     }
 
+    private UserDetails loadPrincipal(String username) {
+        return principalCache.isEnabled()
+                ? principalCache.get(username, userDetailsService::loadUserByUsername)
+                : userDetailsService.loadUserByUsername(username);
+    }
+
     private String getAccessToken(String username, List<String> roles, Date now, Date validity) {
         String issueUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
-        return JWT.create()
+        JWTCreator.Builder builder = JWT.create()
                 .withClaim("roles", roles)
                 .withIssuedAt(now)
                 .withExpiresAt(validity)
                 .withSubject(username)
-                .withIssuer(issueUrl)
-                .sign(algorithm);
+                .withIssuer(issueUrl);
+        return sign(builder);
     }
 
     private String getRefreshToken(String username, List<String> roles, Date now) {
         String issueUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
         Date refreshTokenValidity = new Date(now.getTime() + (validityInMilliseconds * 3));
-        return JWT.create()
+        JWTCreator.Builder builder = JWT.create()
                 .withClaim("roles", roles)
                 .withIssuedAt(now)
                 .withExpiresAt(refreshTokenValidity)
-                .withSubject(username)
-                .sign(algorithm);
+                .withSubject(username);
+        return sign(builder);
     }
 
-    private DecodedJWT decodedToken(String token) {
-        Algorithm alg = Algorithm.HMAC256(secretKey.getBytes());
-        JWTVerifier verifier = JWT.require(alg).build();
-        DecodedJWT decodedJWT = verifier.verify(token);
-        return decodedJWT;
+    private String sign(JWTCreator.Builder builder) {
+        if (!keyStore.isAsymmetric()) return builder.sign(algorithm);
+        JwtKeyStore.SigningKey signingKey = keyStore.signingKey();
+        return builder.withKeyId(signingKey.kid()).sign(signingKey.algorithm());
     }
 
     private static boolean refreshTokenContainsBearer(String refreshToken) {
@@ -0,0 +1,46 @@
+package com.murilodias03.bookstore.security.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Component
+public class PrincipalCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private record Entry(UserDetails principal, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public PrincipalCache(@Value("${security.jwt.principal-cache.ttl-seconds:0}") long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return ttlNanos > 0;
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt() - now > 0) return entry.principal();
+
+        UserDetails principal = loader.apply(username);
+        if (entries.size() >= MAX_ENTRIES) entries.values().removeIf(expired -> expired.expiresAt() - now <= 0);
+        entries.put(username, new Entry(principal, now + ttlNanos));
+        return principal;
+    }
+
+    // Only this instance forgets the user; other instances catch up when their entry expires
+    public void invalidate(String username) {
+        entries.remove(username);
+    }
+}
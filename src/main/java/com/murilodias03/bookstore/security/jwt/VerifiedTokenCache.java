@@ -0,0 +1,92 @@
+package com.murilodias03.bookstore.security.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(DecodedJWT decodedJWT, long expiresAt) {
+    }
+
+    // Keyed by digest so the map never holds bearer tokens as keys and keys have a fixed size
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${security.jwt.token-cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("security.jwt.token.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("security.jwt.token.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("security.jwt.token.cache.evictions").register(meterRegistry);
+        Gauge.builder("security.jwt.token.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    // Only tokens the verifier accepted are stored, and each one is dropped once its exp has passed
+    public DecodedJWT get(String token, Function<String, DecodedJWT> verifier) {
+        if (maxSize <= 0) return verifier.apply(token);
+
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (now < entry.expiresAt()) {
+                hits.increment();
+                return entry.decodedJWT();
+            }
+            entries.remove(key, entry);
+        }
+
+        misses.increment();
+        DecodedJWT decodedJWT = verifier.apply(token);
+        Date expiresAt = decodedJWT.getExpiresAt();
+        if (expiresAt != null && expiresAt.getTime() > now) {
+            makeRoom(now);
+            entries.put(key, new Entry(decodedJWT, expiresAt.getTime()));
+        }
+        return decodedJWT;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void makeRoom(long now) {
+        if (entries.size() < maxSize) return;
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        // Still full of live tokens: drop arbitrary ones, they only cost a verification to bring back
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+    }
+}
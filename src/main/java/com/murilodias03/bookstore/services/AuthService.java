@@ -2,13 +2,30 @@ package com.murilodias03.bookstore.services;
 
 import com.murilodias03.bookstore.data.dto.security.AccountCredentialsDTO;
 import com.murilodias03.bookstore.data.dto.security.TokenDTO;
+import com.murilodias03.bookstore.exceptions.TooManyRequestsException;
 import com.murilodias03.bookstore.repositories.UserRepository;
 import com.murilodias03.bookstore.security.jwt.JwtTokenProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AuthService {
@@ -16,29 +33,63 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final UserRepository userRepository;
+    private final ThreadPoolExecutor signInExecutor;
+    private final Counter rejectedSignIns;
 
     public AuthService(AuthenticationManager authenticationManager,
                        JwtTokenProvider tokenProvider,
-                       UserRepository userRepository) {
+                       UserRepository userRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${auth.signin.threads:0}") int threads,
+                       @Value("${auth.signin.queue-capacity:64}") int queueCapacity) {
         this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
         this.userRepository = userRepository;
+
+        // PBKDF2 is deliberately slow, so logins get their own threads instead of the servlet pool
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.signInExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("signin-", 0).daemon().factory());
+        new ExecutorServiceMetrics(signInExecutor, "auth.signin", List.of()).bindTo(meterRegistry);
+        this.rejectedSignIns = Counter.builder("auth.signin.rejected").register(meterRegistry);
+    }
+
+    public CompletableFuture<ResponseEntity<TokenDTO>> singIn(AccountCredentialsDTO credentials) {
+        // The token's issuer comes from the current request, which the sign-in thread has to see too
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    return authenticate(credentials);
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            }, signInExecutor);
+        } catch (RejectedExecutionException e) {
+            rejectedSignIns.increment();
+            throw new TooManyRequestsException("Too many sign-in attempts in progress, please try again later!");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        signInExecutor.shutdownNow();
     }
 
-    public ResponseEntity<TokenDTO> singIn(AccountCredentialsDTO credentials) {
-        authenticationManager.authenticate(
+    private ResponseEntity<TokenDTO> authenticate(AccountCredentialsDTO credentials) {
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         credentials.username(),
                         credentials.password()
                 )
         );
 
-        var user = userRepository.findByUsername(credentials.username());
-        if (user == null) throw new UsernameNotFoundException("Username " + credentials.username() + " not found!");
-
+        // The authorities are the user's permissions, already loaded to check the password
         var token = tokenProvider.createAccessToken(
                 credentials.username(),
-                user.getRoles()
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList()
         );
 
         return ResponseEntity.ok(token);
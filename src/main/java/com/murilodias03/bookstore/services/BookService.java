@@ -4,8 +4,12 @@ import com.murilodias03.bookstore.controllers.BookController;
 import com.murilodias03.bookstore.data.dto.BookDTO;
 import com.murilodias03.bookstore.exceptions.RequeriedObjectsIsNullException;
 import com.murilodias03.bookstore.exceptions.ResourceNotFoundException;
+import com.murilodias03.bookstore.hateoas.LinkTemplates;
 import com.murilodias03.bookstore.model.Book;
 import com.murilodias03.bookstore.repositories.BookRepository;
+import com.murilodias03.bookstore.search.CatalogSearchIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
@@ -14,7 +18,12 @@ import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import static com.murilodias03.bookstore.mapper.ObjectMapper.parseObject;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -25,12 +34,17 @@ public class BookService {
 
     private final Logger logger = Logger.getLogger(BookService.class.getName());
     private final BookRepository bookRepository;
+    private final CatalogSearchIndex searchIndex;
 
     private final PagedResourcesAssembler<BookDTO> assembler;
 
+    private final LinkTemplates bookLinks = new LinkTemplates(BookService::buildLinks);
+
     public BookService(BookRepository bookRepository,
+                       CatalogSearchIndex searchIndex,
                        PagedResourcesAssembler<BookDTO> assembler) {
         this.bookRepository = bookRepository;
+        this.searchIndex = searchIndex;
         this.assembler = assembler;
     }
 
@@ -39,12 +53,6 @@ public class BookService {
 
         var books = bookRepository.findAll(pageable);
 
-        var booksWithLinks = books.map(book -> {
-            var dto = parseObject(book, BookDTO.class);
-            addHateoasLinks(dto);
-            return dto;
-        });
-
         Link findAllLink = WebMvcLinkBuilder.linkTo(
                         WebMvcLinkBuilder.methodOn(BookController.class)
                                 .findAll(
@@ -53,7 +61,23 @@ public class BookService {
                                         String.valueOf(pageable.getSort())))
                 .withSelfRel();
 
-        return assembler.toModel(booksWithLinks, findAllLink);
+        return buildPagedModel(books, findAllLink);
+    }
+
+    public PagedModel<EntityModel<BookDTO>> quickSearch(String term, Pageable pageable) {
+        logger.info("Quick searching books!");
+
+        var ids = searchIndex.searchBooks(term);
+        var books = ids.isPresent()
+                ? loadPage(ids.get(), pageable)
+                : bookRepository.findBooksByTitleOrAuthor(term, pageable);
+
+        Link quickSearchLink = WebMvcLinkBuilder.linkTo(
+                        WebMvcLinkBuilder.methodOn(BookController.class)
+                                .quickSearch(term, pageable.getPageNumber(), pageable.getPageSize()))
+                .withSelfRel();
+
+        return buildPagedModel(books, quickSearchLink);
     }
 
     public BookDTO findById(Long id) {
@@ -77,7 +101,9 @@ public class BookService {
 
         var entity = parseObject(bookDTO, Book.class);
 
-        var dto = parseObject(bookRepository.save(entity), BookDTO.class);
+        var persisted = bookRepository.save(entity);
+        searchIndex.indexBook(persisted);
+        var dto = parseObject(persisted, BookDTO.class);
 
         addHateoasLinks(dto);
 
@@ -98,7 +124,9 @@ public class BookService {
         entity.setPrice(bookDTO.getPrice());
         entity.setTitle(bookDTO.getTitle());
 
-        var dto = parseObject(bookRepository.save(entity), BookDTO.class);
+        var persisted = bookRepository.save(entity);
+        searchIndex.indexBook(persisted);
+        var dto = parseObject(persisted, BookDTO.class);
 
         addHateoasLinks(dto);
 
@@ -112,14 +140,47 @@ public class BookService {
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
 
         bookRepository.delete(entity);
+        searchIndex.removeBook(id);
+    }
+
+    private PagedModel<EntityModel<BookDTO>> buildPagedModel(Page<Book> books, Link selfLink) {
+        var links = bookLinks.forCurrentRequest();
+        var booksWithLinks = books.map(book -> {
+            var dto = parseObject(book, BookDTO.class);
+            links.addTo(dto, dto.getId());
+            return dto;
+        });
+
+        return assembler.toModel(booksWithLinks, selfLink);
+    }
+
+    private Page<Book> loadPage(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+
+        Map<Long, Book> byId = bookRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<Book> books = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(books, pageable, ids.size());
     }
 
     private void addHateoasLinks(BookDTO dto) {
-        dto.add(linkTo(methodOn(BookController.class).findById(dto.getId())).withSelfRel().withType("GET"));
-        dto.add(linkTo(methodOn(BookController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"));
-        dto.add(linkTo(methodOn(BookController.class).create(dto)).withRel("create").withType("POST"));
-        dto.add(linkTo(methodOn(BookController.class).update(dto)).withRel("update").withType("PUT"));
-        dto.add(linkTo(methodOn(BookController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
+        bookLinks.forCurrentRequest().addTo(dto, dto.getId());
+    }
+
+    private static List<Link> buildLinks(Long id) {
+        return List.of(
+                linkTo(methodOn(BookController.class).findById(id)).withSelfRel().withType("GET"),
+                linkTo(methodOn(BookController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(BookController.class).create(null)).withRel("create").withType("POST"),
+                linkTo(methodOn(BookController.class).update(null)).withRel("update").withType("PUT"),
+                linkTo(methodOn(BookController.class).delete(id)).withRel("delete").withType("DELETE")
+        );
     }
 
 }
\ No newline at end of file
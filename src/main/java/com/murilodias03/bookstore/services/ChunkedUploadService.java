@@ -0,0 +1,330 @@
+package com.murilodias03.bookstore.services;
+
+import com.murilodias03.bookstore.config.FileStorageConfig;
+import com.murilodias03.bookstore.data.dto.UploadPartDTO;
+import com.murilodias03.bookstore.data.dto.UploadSessionDTO;
+import com.murilodias03.bookstore.exceptions.BadRequestException;
+import com.murilodias03.bookstore.exceptions.FileStorageException;
+import com.murilodias03.bookstore.exceptions.FileTooLargeException;
+import com.murilodias03.bookstore.exceptions.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final String SESSION_FILE = "session.properties";
+    private static final String PART_SUFFIX = ".part";
+    private static final String ASSEMBLING_SUFFIX = ".assembling";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final Path uploadLocation;
+    private final Path sessionsLocation;
+    private final long maxPartSize;
+    private final int maxParts;
+    private final long expirationMillis;
+
+    public ChunkedUploadService(FileStorageConfig fileStorageConfig,
+                                FileStorageService fileStorageService,
+                                @Value("${file.upload.chunked.max-part-size:16777216}") long maxPartSize,
+                                @Value("${file.upload.chunked.max-parts:10000}") int maxParts,
+                                @Value("${file.upload.chunked.expiration-hours:24}") long expirationHours) {
+        this.fileStorageService = fileStorageService;
+        this.uploadLocation = Paths.get(fileStorageConfig.getUpload_dir()).toAbsolutePath().normalize();
+        this.sessionsLocation = uploadLocation.resolve(".uploads");
+        this.maxPartSize = maxPartSize;
+        this.maxParts = maxParts;
+        this.expirationMillis = TimeUnit.HOURS.toMillis(expirationHours);
+    }
+
+    public UploadSessionDTO initiate(String fileName) {
+        String cleanName = StringUtils.cleanPath(fileName == null ? "" : fileName);
+        if (cleanName.isBlank() || cleanName.contains("..")) {
+            throw new BadRequestException("Sorry, file name contains a invalid path sequence " + fileName);
+        }
+        // cleanPath keeps absolute names, which would resolve outside the upload directory on complete
+        Path target = uploadLocation.resolve(cleanName).normalize();
+        if (!target.startsWith(uploadLocation) || target.equals(uploadLocation)) {
+            logger.error("Sorry, file name points outside the upload directory " + fileName);
+            throw new FileStorageException("Sorry, file name points outside the upload directory " + fileName);
+        }
+
+        removeExpiredSessions();
+
+        String id = UUID.randomUUID().toString();
+        Path session = sessionsLocation.resolve(id);
+        Properties properties = new Properties();
+        properties.setProperty("fileName", cleanName);
+        properties.setProperty("createdAt", Long.toString(System.currentTimeMillis()));
+        try {
+            Files.createDirectories(session);
+            try (OutputStream out = Files.newOutputStream(session.resolve(SESSION_FILE))) {
+                properties.store(out, null);
+            }
+        } catch (IOException e) {
+            logger.error("Could not create upload session for " + cleanName, e);
+            throw new FileStorageException("Could not create upload session for " + cleanName, e);
+        }
+
+        logger.info("Started chunked upload " + id + " for " + cleanName);
+        return findById(id);
+    }
+
+    public UploadPartDTO uploadPart(String id, int partNumber, InputStream inputStream) {
+        if (partNumber < 1 || partNumber > maxParts) {
+            throw new BadRequestException("Part number must be between 1 and " + maxParts + "!");
+        }
+        Path session = sessionDirectory(id);
+
+        // Parts are independent files, so clients may send them in parallel and retry any of them
+        Path temp = session.resolve(partNumber + "." + UUID.randomUUID() + ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxPartSize) {
+                        throw new FileTooLargeException("Part " + partNumber + " exceeds the maximum size of " + maxPartSize + " bytes!");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            moveIntoPlace(temp, session.resolve(partNumber + PART_SUFFIX));
+            return new UploadPartDTO(partNumber, size, HexFormat.of().formatHex(digest.digest()));
+
+        } catch (NoSuchFileException e) {
+            deleteQuietly(temp);
+            throw new ResourceNotFoundException("No upload session found for this ID!");
+        } catch (FileTooLargeException e) {
+            deleteQuietly(temp);
+            throw e;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            logger.error("Could not store part " + partNumber + " of upload " + id, e);
+            throw new FileStorageException("Could not store part " + partNumber + " of upload " + id, e);
+        }
+    }
+
+    public UploadSessionDTO findById(String id) {
+        Path session = sessionDirectory(id);
+        Properties properties = readSession(session);
+        long createdAt = Long.parseLong(properties.getProperty("createdAt"));
+
+        UploadSessionDTO dto = new UploadSessionDTO();
+        dto.setId(id);
+        dto.setFileName(properties.getProperty("fileName"));
+        dto.setMaxPartSize(maxPartSize);
+        dto.setCreatedAt(new Date(createdAt));
+        // Every stored part touches the directory, so sessions expire after a period without progress
+        dto.setExpiresAt(new Date(lastActivity(session) + expirationMillis));
+        dto.setParts(listParts(session).stream().map(part -> {
+            try {
+                return new UploadPartDTO(partNumber(part), Files.size(part), null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).toList());
+        return dto;
+    }
+
+    public FileStorageService.StoredFile complete(String id) {
+        Path session = sessionDirectory(id);
+        String fileName = readSession(session).getProperty("fileName");
+
+        // Claiming the directory makes a second complete, or a late part, fail instead of racing the assembly
+        Path assembling = session.resolveSibling(session.getFileName() + ASSEMBLING_SUFFIX);
+        try {
+            Files.move(session, assembling, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("No upload session found for this ID!");
+        }
+
+        try {
+            // A rename keeps the directory's mtime, so stamp when the assembly started for removeExpiredSessions
+            Files.setLastModifiedTime(assembling, FileTime.fromMillis(System.currentTimeMillis()));
+            List<Path> parts = listParts(assembling);
+            if (parts.isEmpty()) throw new BadRequestException("The upload has no parts!");
+            for (int i = 0; i < parts.size(); i++) {
+                if (partNumber(parts.get(i)) != i + 1) {
+                    throw new BadRequestException("Part " + (i + 1) + " is missing!");
+                }
+            }
+
+            FileStorageService.StoredFile stored;
+            try (InputStream assembled = new SequenceInputStream(openInOrder(parts))) {
+                stored = fileStorageService.store(assembled, fileName);
+            }
+            FileSystemUtils.deleteRecursively(assembling);
+            logger.info("Completed chunked upload " + id + " with " + parts.size() + " parts");
+            return stored;
+
+        } catch (RuntimeException | IOException e) {
+            // Hand the session back so the client can fix what is missing and complete again
+            try {
+                Files.move(assembling, session, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException restore) {
+                logger.warn("Could not reopen upload session " + id, restore);
+            }
+            if (e instanceof RuntimeException runtime) throw runtime;
+            throw new FileStorageException("Could not assemble upload " + id, e);
+        }
+    }
+
+    public void abort(String id) {
+        Path session = sessionDirectory(id);
+        try {
+            FileSystemUtils.deleteRecursively(session);
+        } catch (IOException e) {
+            logger.warn("Could not delete upload session " + id, e);
+        }
+    }
+
+    private Path sessionDirectory(String id) {
+        try {
+            // Only well-formed ids reach the filesystem, which also rules out path tricks
+            Path session = sessionsLocation.resolve(UUID.fromString(id).toString());
+            if (Files.isDirectory(session)) return session;
+        } catch (IllegalArgumentException ignored) {
+        }
+        throw new ResourceNotFoundException("No upload session found for this ID!");
+    }
+
+    private Properties readSession(Path session) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(session.resolve(SESSION_FILE))) {
+            properties.load(in);
+            return properties;
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("No upload session found for this ID!");
+        }
+    }
+
+    private void removeExpiredSessions() {
+        if (!Files.isDirectory(sessionsLocation)) return;
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> sessions = Files.newDirectoryStream(sessionsLocation, Files::isDirectory)) {
+            for (Path session : sessions) {
+                // complete stamps the start of an assembly, so one older than two expiration periods was left by a crash
+                boolean assembling = session.getFileName().toString().endsWith(ASSEMBLING_SUFFIX);
+                long timeout = assembling ? 2 * expirationMillis : expirationMillis;
+                long lastActivity;
+                try {
+                    lastActivity = lastActivity(session);
+                } catch (UncheckedIOException e) {
+                    // Renamed or deleted by a concurrent complete
+                    continue;
+                }
+                if (now - lastActivity > timeout) {
+                    FileSystemUtils.deleteRecursively(session);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean up expired upload sessions", e);
+        }
+    }
+
+    private static long lastActivity(Path session) {
+        try {
+            return Files.getLastModifiedTime(session).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Path> listParts(Path session) {
+        List<Path> parts = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(session, "*" + PART_SUFFIX)) {
+            files.forEach(parts::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        parts.sort(Comparator.comparingInt(ChunkedUploadService::partNumber));
+        return parts;
+    }
+
+    private static int partNumber(Path part) {
+        String name = part.getFileName().toString();
+        return Integer.parseInt(name.substring(0, name.length() - PART_SUFFIX.length()));
+    }
+
+    private static Enumeration<InputStream> openInOrder(List<Path> parts) {
+        Iterator<Path> iterator = parts.iterator();
+        return new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return Files.newInputStream(iterator.next());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary file " + file, e);
+        }
+    }
+}
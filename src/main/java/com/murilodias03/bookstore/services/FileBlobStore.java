@@ -0,0 +1,213 @@
+package com.murilodias03.bookstore.services;
+
+import com.murilodias03.bookstore.config.FileStorageConfig;
+import com.murilodias03.bookstore.file.compression.ContentEncoding;
+import com.murilodias03.bookstore.repositories.FileBlobRepository;
+import com.murilodias03.bookstore.repositories.FileMetadataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class FileBlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileBlobStore.class);
+
+    // Compressing these again costs CPU and saves next to nothing
+    private static final Set<String> PRECOMPRESSED_EXTENSIONS = Set.of(
+            "gz", "zst", "zip", "7z", "bz2", "xz", "xlsx", "docx", "pptx",
+            "jpg", "jpeg", "png", "gif", "webp", "mp3", "mp4", "pdf");
+
+    // encoding is null when the blob holds the original bytes; size is always the original size.
+    // sha256 and lastModified describe the name, not the shared blob file, and sha256 is null for legacy files
+    public record StoredBlob(Path path, long size, ContentEncoding encoding, String sha256, long lastModified) {
+    }
+
+    private final Path blobLocation;
+    private final FileBlobRepository blobRepository;
+    private final FileMetadataRepository metadataRepository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate cleanupTransaction;
+    private final ContentEncoding storageEncoding;
+
+    public FileBlobStore(FileStorageConfig fileStorageConfig,
+                         FileBlobRepository blobRepository,
+                         FileMetadataRepository metadataRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${file.storage.compression:none}") String compression) {
+        this.blobLocation = Paths.get(fileStorageConfig.getUpload_dir())
+                .toAbsolutePath().normalize().resolve("blobs");
+        this.blobRepository = blobRepository;
+        this.metadataRepository = metadataRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.cleanupTransaction = new TransactionTemplate(transactionManager);
+        this.cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.storageEncoding = "none".equalsIgnoreCase(compression) ? null : ContentEncoding.fromToken(compression)
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported file.storage.compression " + compression));
+    }
+
+    // Points name at the content of the fully written temp file; the temp file is consumed either way
+    public void put(String name, Path temp, String sha256, long size) {
+        Path encoded = null;
+        try {
+            // Compressed outside the transaction so the blob row lock is only held for the rename
+            ContentEncoding encoding = encodingFor(name);
+            if (encoding != null && locate(sha256).isEmpty()) encoded = compress(temp, encoding);
+            Path source = encoded != null ? encoded : temp;
+            Path target = encoded != null ? blobPath(sha256, encoding) : blobPath(sha256);
+
+            transaction.executeWithoutResult(status -> {
+                metadataRepository.lockName(name);
+                // Keeps the cleanup of a concurrently released blob with the same content from deleting the file
+                blobRepository.lockContent(sha256);
+                blobRepository.acquire(sha256, size);
+                if (locate(sha256).isEmpty()) moveIntoPlace(source, target);
+
+                Optional<String> previous = metadataRepository.findSha256ByName(name);
+                metadataRepository.upsert(name, sha256, size);
+                previous.ifPresent(this::release);
+            });
+        } finally {
+            deleteQuietly(temp);
+            if (encoded != null) deleteQuietly(encoded);
+        }
+    }
+
+    public Optional<StoredBlob> find(String name) {
+        return metadataRepository.findById(name).flatMap(metadata -> locate(metadata.getSha256())
+                .map(path -> new StoredBlob(path, metadata.getSize(), encodingOf(path),
+                        metadata.getSha256(), metadata.getUpdatedAt().toEpochMilli())));
+    }
+
+    public boolean delete(String name) {
+        Boolean deleted = transaction.execute(status -> {
+            metadataRepository.lockName(name);
+            Optional<String> previous = metadataRepository.findSha256ByName(name);
+            previous.ifPresent(sha256 -> {
+                metadataRepository.deleteByName(name);
+                release(sha256);
+            });
+            return previous.isPresent();
+        });
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    Path blobPath(String sha256) {
+        return blobLocation.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private Path blobPath(String sha256, ContentEncoding encoding) {
+        return blobPath(sha256).resolveSibling(sha256 + encoding.getFileSuffix());
+    }
+
+    // A blob keeps the encoding it was written with, so changing the setting never rewrites existing files
+    private Optional<Path> locate(String sha256) {
+        Path plain = blobPath(sha256);
+        if (Files.exists(plain)) return Optional.of(plain);
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            Path encoded = blobPath(sha256, encoding);
+            if (Files.exists(encoded)) return Optional.of(encoded);
+        }
+        return Optional.empty();
+    }
+
+    private static ContentEncoding encodingOf(Path blob) {
+        String fileName = blob.getFileName().toString();
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            if (fileName.endsWith(encoding.getFileSuffix())) return encoding;
+        }
+        return null;
+    }
+
+    private ContentEncoding encodingFor(String name) {
+        if (storageEncoding == null) return null;
+        int dot = name.lastIndexOf('.');
+        String extension = dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return PRECOMPRESSED_EXTENSIONS.contains(extension) ? null : storageEncoding;
+    }
+
+    private static Path compress(Path temp, ContentEncoding encoding) {
+        Path encoded = temp.resolveSibling(temp.getFileName() + encoding.getFileSuffix());
+        try (OutputStream out = encoding.compress(Files.newOutputStream(encoded, StandardOpenOption.CREATE_NEW))) {
+            Files.copy(temp, out);
+            return encoded;
+        } catch (IOException e) {
+            deleteQuietly(encoded);
+            throw new UncheckedIOException("Could not compress " + temp.getFileName(), e);
+        }
+    }
+
+    private void release(String sha256) {
+        blobRepository.release(sha256);
+        if (blobRepository.deleteIfUnreferenced(sha256) > 0) {
+            // Only once the row is really gone: a rolled back transaction must still find the file
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteUnreferenced(sha256);
+                }
+            });
+        }
+    }
+
+    private void deleteUnreferenced(String sha256) {
+        try {
+            cleanupTransaction.executeWithoutResult(status -> {
+                blobRepository.lockContent(sha256);
+                // A put that committed in between brought the row back and relies on the file
+                if (blobRepository.existsById(sha256)) return;
+                try {
+                    Files.deleteIfExists(blobPath(sha256));
+                    for (ContentEncoding encoding : ContentEncoding.values()) {
+                        Files.deleteIfExists(blobPath(sha256, encoding));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete unreferenced blob " + sha256, e);
+        }
+    }
+
+    // Same hash means same bytes, so callers skip this when any variant of the blob already exists
+    private static void moveIntoPlace(Path temp, Path blob) {
+        try {
+            Files.createDirectories(blob.getParent());
+            try {
+                Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, blob);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store blob " + blob.getFileName(), e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary file " + file, e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.murilodias03.bookstore.services;
+
+import com.murilodias03.bookstore.file.compression.ContentEncoding;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@Service
+public class FileDownloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDownloadService.class);
+
+    // Request attributes of Tomcat's sendfile support, see org.apache.coyote.Constants
+    static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long sendfileThreshold;
+    private final long minCompressSize;
+
+    public FileDownloadService(@Value("${file.download.sendfile-threshold:49152}") long sendfileThreshold,
+                               @Value("${compression.min-response-size:2048}") long minCompressSize) {
+        this.sendfileThreshold = sendfileThreshold;
+        this.minCompressSize = minCompressSize;
+    }
+
+    public void send(FileBlobStore.StoredBlob file, String fileName, String contentType,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = file.size();
+        // Taken from the name's metadata: the blob file is shared and may predate the name pointing at it
+        long lastModified = file.lastModified();
+
+        // Ranges always address the original bytes, so a ranged request is never content-encoded
+        boolean negotiable = file.encoding() != null || size >= minCompressSize && ContentEncoding.isCompressible(contentType);
+        ContentEncoding encoding = negotiable && request.getHeader(HttpHeaders.RANGE) == null
+                ? responseEncoding(file, request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                : null;
+        String eTag = eTag(file, encoding);
+        if (negotiable) response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        // Answers If-None-Match / If-Modified-Since with 304 and If-Match / If-Unmodified-Since with 412
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) return;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // The name comes from the URL, so it is escaped and sent RFC 5987 encoded instead of pasted into the header
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString());
+        response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        if (encoding != null) {
+            sendEncoded(file, encoding, request, response);
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        HttpRange range = requestedRange(request, eTag(file, null), lastModified);
+        if (range != null) {
+            if (size == 0 || range.getRangeStart(size) >= size) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) return;
+
+        if (file.encoding() != null) {
+            transferDecoded(file, start, length, response);
+        } else {
+            sendBytes(file.path(), start, end, request, response);
+        }
+    }
+
+    private void sendEncoded(FileBlobStore.StoredBlob file, ContentEncoding encoding,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+
+        if (encoding == file.encoding()) {
+            // Stored compressed in the encoding the client asked for, so the bytes on disk go out untouched
+            long length = Files.size(file.path());
+            response.setContentLengthLong(length);
+            if ("HEAD".equals(request.getMethod()) || length == 0) return;
+            sendBytes(file.path(), 0, length - 1, request, response);
+            return;
+        }
+
+        if ("HEAD".equals(request.getMethod())) return;
+        try (OutputStream out = encoding.compress(response.getOutputStream())) {
+            Files.copy(file.path(), out);
+        }
+    }
+
+    private void sendBytes(Path file, long start, long end,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = end - start + 1;
+        if (length >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE))) {
+            // The connector streams the file from the page cache to the socket once the handler returns
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+            return;
+        }
+
+        transfer(file, start, length, response);
+    }
+
+    private static void transferDecoded(FileBlobStore.StoredBlob file, long start, long length,
+                                        HttpServletResponse response) throws IOException {
+        try (InputStream in = file.encoding().decompress(Files.newInputStream(file.path()))) {
+            in.skipNBytes(start);
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) break;
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    private static ContentEncoding responseEncoding(FileBlobStore.StoredBlob file, String acceptEncoding) {
+        // A stored blob is served in its own encoding or decoded, never transcoded
+        if (file.encoding() != null) return file.encoding().isAcceptedBy(acceptEncoding) ? file.encoding() : null;
+        return ContentEncoding.negotiate(acceptEncoding).orElse(null);
+    }
+
+    private static void transfer(Path file, long start, long length, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static HttpRange requestedRange(HttpServletRequest request, String eTag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) return null;
+
+        // A stale If-Range means the client's partial copy is outdated, so it gets the whole file
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag) && !ifRangeDateMatches(request, lastModified)) return null;
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            // Multipart byteranges are not worth it for downloads; serving the full body is a valid answer
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            logger.debug("Ignoring invalid Range header " + header);
+            return null;
+        }
+    }
+
+    private static boolean ifRangeDateMatches(HttpServletRequest request, long lastModified) {
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date != -1 && lastModified / 1000 == date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Each content-coding is its own representation and needs its own strong validator
+    private static String eTag(FileBlobStore.StoredBlob file, ContentEncoding encoding) {
+        String suffix = encoding != null ? "-" + encoding.getToken() : "";
+        if (file.sha256() != null) return "\"" + file.sha256() + suffix + "\"";
+        return "\"" + Long.toHexString(file.size()) + "-" + Long.toHexString(file.lastModified()) + suffix + "\"";
+    }
+}
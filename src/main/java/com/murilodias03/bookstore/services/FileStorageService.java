@@ -1,36 +1,67 @@
 package com.murilodias03.bookstore.services;
 
 import com.murilodias03.bookstore.config.FileStorageConfig;
-import com.murilodias03.bookstore.controllers.FileController;
 import com.murilodias03.bookstore.exceptions.FileNotFoundException;
 import com.murilodias03.bookstore.exceptions.FileStorageException;
+import com.murilodias03.bookstore.exceptions.FileTooLargeException;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class FileStorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public record StoredFile(String fileName, long size, String checksum) {
+    }
+
     private final Path fileStorageLocation;
+    private final FileBlobStore blobStore;
+    private final long maxUploadSize;
+    private final ExecutorService uploadExecutor;
 
     @Autowired
-    public FileStorageService(FileStorageConfig fileStorageConfig) {
+    public FileStorageService(FileStorageConfig fileStorageConfig,
+                              FileBlobStore blobStore,
+                              @Value("${file.upload.max-size:209715200}") long maxUploadSize,
+                              @Value("${file.upload.parallelism:4}") int parallelism) {
         Path path = Paths.get(fileStorageConfig.getUpload_dir())
                 .toAbsolutePath().normalize();
 
         this.fileStorageLocation = path;
+        this.blobStore = blobStore;
+        this.maxUploadSize = maxUploadSize;
+        this.uploadExecutor = Executors.newFixedThreadPool(Math.max(parallelism, 1),
+                Thread.ofPlatform().name("file-upload-", 0).daemon().factory());
 
         try {
             logger.info("Creating directories");
@@ -42,32 +73,117 @@ public class FileStorageService {
 
     }
 
-    public String storeFile(MultipartFile file) {
-        String fileName = StringUtils.cleanPath(file.getOriginalFilename());
+    public StoredFile store(MultipartFile file) {
+        return store(file, StringUtils.cleanPath(file.getOriginalFilename()));
+    }
 
-        try {
-            if (fileName.contains("..")) {
-                logger.error("Sorry, file name contains a invalid path sequence " + fileName);
-                throw new FileStorageException("Sorry, file name contains a invalid path sequence " + fileName);
-            }
+    public String storeFile(MultipartFile file, String fileName) {
+        return store(file, fileName).fileName();
+    }
 
+    public StoredFile store(MultipartFile file, String fileName) {
+        Path legacyLocation = resolveTarget(fileName);
+        Path temp = tempFileFor();
+        try {
             logger.info("Saving file in disk");
 
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            // The container already spooled the part to disk, transferTo lets it move that file instead of copying it
+            file.transferTo(temp.toFile());
+            String checksum = checksum(temp);
+            long size = Files.size(temp);
+            commit(fileName, legacyLocation, temp, checksum, size);
+
+            return new StoredFile(fileName, size, checksum);
+
+        } catch (Exception e) {
+            deleteQuietly(temp);
+            logger.error("Could not store file " + fileName + ". Please try again!", e);
+            throw new FileStorageException("Could not store file " + fileName + ". Please try again!", e);
+        }
+    }
+
+    public StoredFile store(InputStream inputStream, String fileName) {
+        Path legacyLocation = resolveTarget(fileName);
+        Path temp = tempFileFor();
+        try {
+            logger.info("Streaming file to disk");
 
-            return fileName;
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxUploadSize) {
+                        throw new FileTooLargeException("File " + fileName + " exceeds the maximum size of " + maxUploadSize + " bytes!");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String checksum = HexFormat.of().formatHex(digest.digest());
+            commit(fileName, legacyLocation, temp, checksum, size);
 
+            return new StoredFile(fileName, size, checksum);
+
+        } catch (FileTooLargeException e) {
+            deleteQuietly(temp);
+            throw e;
         } catch (Exception e) {
+            deleteQuietly(temp);
             logger.error("Could not store file " + fileName + ". Please try again!", e);
             throw new FileStorageException("Could not store file " + fileName + ". Please try again!", e);
         }
     }
 
+    public List<StoredFile> storeAll(List<MultipartFile> files) {
+        List<CompletableFuture<StoredFile>> stored = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> store(file), uploadExecutor))
+                .toList();
+        try {
+            return stored.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    public void deleteFile(String fileName) {
+        Path legacyLocation = resolveTarget(fileName);
+        try {
+            blobStore.delete(fileName);
+            Files.deleteIfExists(legacyLocation);
+        } catch (Exception e) {
+            logger.warn("Could not delete file " + fileName, e);
+        }
+    }
+
+    public FileBlobStore.StoredBlob loadFile(String fileName) {
+        Optional<FileBlobStore.StoredBlob> stored = blobStore.find(fileName);
+        if (stored.isPresent()) return stored.get();
+
+        // Files stored before the blob store existed still live under their own name, uncompressed
+        Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+        try {
+            if (filePath.startsWith(this.fileStorageLocation) && Files.isRegularFile(filePath)) {
+                return new FileBlobStore.StoredBlob(filePath, Files.size(filePath), null,
+                        null, Files.getLastModifiedTime(filePath).toMillis());
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read file " + fileName, e);
+        }
+        logger.error("File not found " + fileName);
+        throw new FileNotFoundException("File not found " + fileName);
+    }
+
     public Resource loadFileAsResource(String fileName) {
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
+            FileBlobStore.StoredBlob stored = loadFile(fileName);
+            if (stored.encoding() != null) {
+                return new InputStreamResource(stored.encoding().decompress(Files.newInputStream(stored.path())));
+            }
+            Resource resource = new UrlResource(stored.path().toUri());
 
             if (resource.exists()) {
                 return resource;
@@ -81,4 +197,60 @@ public class FileStorageService {
             throw new FileNotFoundException("File not found " + fileName, e);
         }
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdownNow();
+    }
+
+    private Path resolveTarget(String fileName) {
+        if (fileName == null || fileName.contains("..")) {
+            logger.error("Sorry, file name contains a invalid path sequence " + fileName);
+            throw new FileStorageException("Sorry, file name contains a invalid path sequence " + fileName);
+        }
+        // An absolute name resolves to itself, so containment is checked on the normalized result
+        Path target = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!target.startsWith(this.fileStorageLocation) || target.equals(this.fileStorageLocation)) {
+            logger.error("Sorry, file name points outside the upload directory " + fileName);
+            throw new FileStorageException("Sorry, file name points outside the upload directory " + fileName);
+        }
+        return target;
+    }
+
+    // Lives inside the upload directory so moving it into the blob store is a rename within the same filesystem
+    private Path tempFileFor() {
+        return this.fileStorageLocation.resolve(".upload-" + UUID.randomUUID() + ".part");
+    }
+
+    private void commit(String fileName, Path legacyLocation, Path temp, String checksum, long size) throws IOException {
+        blobStore.put(fileName, temp, checksum, size);
+        // A copy stored under this name before the blob store existed is unreachable from now on
+        Files.deleteIfExists(legacyLocation);
+    }
+
+    private static String checksum(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary file " + file, e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.murilodias03.bookstore.services;
+
+import com.murilodias03.bookstore.data.dto.ImportJobDTO;
+import com.murilodias03.bookstore.data.dto.ImportRowErrorDTO;
+import com.murilodias03.bookstore.exceptions.BadRequestException;
+import com.murilodias03.bookstore.exceptions.ResourceNotFoundException;
+import com.murilodias03.bookstore.exceptions.TooManyRequestsException;
+import com.murilodias03.bookstore.file.importer.contract.FileImporter;
+import com.murilodias03.bookstore.file.importer.factory.FileImporterFactory;
+import com.murilodias03.bookstore.model.Person;
+import com.murilodias03.bookstore.search.CatalogSearchIndex;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Service
+public class PersonImportJobService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final Logger logger = Logger.getLogger(PersonImportJobService.class.getName());
+    private final FileStorageService fileStorageService;
+    private final FileImporterFactory fileImporter;
+    private final PersonImportPipeline importPipeline;
+    private final CatalogSearchIndex searchIndex;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs;
+
+    public PersonImportJobService(FileStorageService fileStorageService,
+                                  FileImporterFactory fileImporter,
+                                  PersonImportPipeline importPipeline,
+                                  CatalogSearchIndex searchIndex,
+                                  @Value("${import.jobs.threads:2}") int threads,
+                                  @Value("${import.jobs.queue-capacity:20}") int queueCapacity,
+                                  @Value("${import.jobs.retained:100}") int retainedJobs) {
+        this.fileStorageService = fileStorageService;
+        this.fileImporter = fileImporter;
+        this.importPipeline = importPipeline;
+        this.searchIndex = searchIndex;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("person-import-", 0).factory());
+        // Oldest jobs are forgotten first, but only once they are no longer running
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+                return size() > retainedJobs && eldest.getValue().isFinished();
+            }
+        };
+    }
+
+    public ImportJobDTO submit(MultipartFile file, boolean upsert) {
+        logger.info("Submitting a people import job!");
+
+        if (file == null || file.isEmpty()) throw new BadRequestException("Please set a valid file!");
+
+        String originalName = Optional.ofNullable(file.getOriginalFilename())
+                .map(StringUtils::cleanPath)
+                .orElseThrow(() -> new BadRequestException("File name cannot be null!"));
+        FileImporter importer = getImporter(originalName);
+
+        String id = UUID.randomUUID().toString();
+        String storedName = fileStorageService.storeFile(file, "import-" + id + "-" + StringUtils.getFilename(originalName));
+
+        ImportJob job = new ImportJob(id, originalName);
+        synchronized (jobs) {
+            jobs.put(id, job);
+        }
+
+        try {
+            executor.execute(() -> run(job, importer, storedName, upsert));
+        } catch (RejectedExecutionException e) {
+            synchronized (jobs) {
+                jobs.remove(id);
+            }
+            fileStorageService.deleteFile(storedName);
+            throw new TooManyRequestsException("Too many import jobs in progress, please try again later!");
+        }
+
+        return job.toDTO();
+    }
+
+    public ImportJobDTO findById(String id) {
+        ImportJob job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null) throw new ResourceNotFoundException("No import job found for this ID!");
+        return job.toDTO();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job, FileImporter importer, String storedName, boolean upsert) {
+        job.start();
+        String status = "COMPLETED";
+        String message = null;
+        try (InputStream inputStream = fileStorageService.loadFileAsResource(storedName).getInputStream()) {
+            importPipeline.run(importer, inputStream, upsert, new PersonImportPipeline.Listener() {
+                @Override
+                public void chunkSaved(int processed, List<Person> saved) {
+                    saved.forEach(searchIndex::indexPerson);
+                    job.addProgress(processed, saved.size());
+                }
+
+                @Override
+                public void rowFailed(long row, String message) {
+                    job.addError(row, message);
+                }
+            });
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "People import job " + job.id + " failed", e);
+            status = "FAILED";
+            message = e.getMessage();
+        }
+        fileStorageService.deleteFile(storedName);
+        job.finish(status, message);
+    }
+
+    private FileImporter getImporter(String fileName) {
+        try {
+            return fileImporter.getImporter(fileName);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid file format!");
+        }
+    }
+
+    private static class ImportJob {
+
+        private final String id;
+        private final String fileName;
+        private final Date createdAt = new Date();
+        private final List<ImportRowErrorDTO> errors = new ArrayList<>();
+        private String status = "QUEUED";
+        private long rowsProcessed;
+        private long rowsImported;
+        private long rowsFailed;
+        private long startedNanos;
+        private long finishedNanos;
+        private Date startedAt;
+        private Date finishedAt;
+        private String message;
+
+        ImportJob(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        synchronized void start() {
+            status = "RUNNING";
+            startedAt = new Date();
+            startedNanos = System.nanoTime();
+        }
+
+        synchronized void addProgress(int processed, int imported) {
+            rowsProcessed += processed;
+            rowsImported += imported;
+        }
+
+        synchronized void addError(long row, String errorMessage) {
+            rowsFailed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ImportRowErrorDTO(row, errorMessage));
+        }
+
+        synchronized void finish(String finalStatus, String finalMessage) {
+            status = finalStatus;
+            message = finalMessage;
+            finishedAt = new Date();
+            finishedNanos = System.nanoTime();
+        }
+
+        synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        synchronized ImportJobDTO toDTO() {
+            ImportJobDTO dto = new ImportJobDTO();
+            dto.setId(id);
+            dto.setStatus(status);
+            dto.setFileName(fileName);
+            dto.setRowsProcessed(rowsProcessed);
+            dto.setRowsImported(rowsImported);
+            dto.setRowsFailed(rowsFailed);
+            dto.setRowsPerSecond(rowsPerSecond());
+            dto.setCreatedAt(createdAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setMessage(message);
+            dto.setErrors(List.copyOf(errors));
+            return dto;
+        }
+
+        private double rowsPerSecond() {
+            if (startedAt == null) return 0;
+            long end = finishedAt != null ? finishedNanos : System.nanoTime();
+            double seconds = Math.max(end - startedNanos, 1) / 1_000_000_000.0;
+            return rowsProcessed / seconds;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.murilodias03.bookstore.services;
+
+import com.murilodias03.bookstore.data.dto.ImportRowErrorDTO;
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.file.importer.contract.FileImporter;
+import com.murilodias03.bookstore.model.Person;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static com.murilodias03.bookstore.mapper.ObjectMapper.parseObject;
+
+@Component
+public class PersonImportPipeline {
+
+    public interface Listener {
+
+        void chunkSaved(int processed, List<Person> saved);
+
+        void rowFailed(long row, String message);
+    }
+
+    // The sequence is the chunk's position in the file, so the writer can restore file order after the parallel mappers
+    private record ParsedChunk(long sequence, List<Long> rows, List<PersonDTO> people) {
+    }
+
+    private record MappedChunk(long sequence, int processed, List<Person> people, List<Long> rows,
+                               List<ImportRowErrorDTO> errors) {
+    }
+
+    private static final ParsedChunk END_OF_INPUT = new ParsedChunk(-1, List.of(), List.of());
+    private static final MappedChunk END_OF_MAPPING = new MappedChunk(-1, 0, List.of(), List.of(), List.of());
+
+    private final Logger logger = Logger.getLogger(PersonImportPipeline.class.getName());
+    private final PersonImportService personImportService;
+    private final int workers;
+    private final int queueCapacity;
+
+    private final Timer parseTimer;
+    private final Timer mapTimer;
+    private final Timer writeTimer;
+    private final Timer parseBlockedTimer;
+    private final Timer mapBlockedTimer;
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public PersonImportPipeline(PersonImportService personImportService,
+                                MeterRegistry meterRegistry,
+                                @Value("${import.pipeline.workers:0}") int workers,
+                                @Value("${import.pipeline.queue-capacity:4}") int queueCapacity) {
+        this.personImportService = personImportService;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+
+        this.parseTimer = stageTimer(meterRegistry, "import.pipeline.stage", "parse");
+        this.mapTimer = stageTimer(meterRegistry, "import.pipeline.stage", "map");
+        this.writeTimer = stageTimer(meterRegistry, "import.pipeline.stage", "write");
+        this.parseBlockedTimer = stageTimer(meterRegistry, "import.pipeline.blocked", "parse");
+        this.mapBlockedTimer = stageTimer(meterRegistry, "import.pipeline.blocked", "map");
+        this.importedRows = Counter.builder("import.pipeline.rows").tag("result", "imported").register(meterRegistry);
+        this.failedRows = Counter.builder("import.pipeline.rows").tag("result", "failed").register(meterRegistry);
+    }
+
+    public long run(FileImporter importer, InputStream inputStream, boolean upsert, Listener listener) throws Exception {
+        long start = System.nanoTime();
+
+        // Bounded queues give backpressure: a slow writer stalls the mappers, which stall the parser
+        BlockingQueue<ParsedChunk> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<MappedChunk> mapped = new ArrayBlockingQueue<>(queueCapacity);
+
+        long processed;
+        try (ExecutorService stages = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tasks = new ArrayList<>(workers + 1);
+            tasks.add(stages.submit(() -> {
+                parse(importer, inputStream, parsed);
+                return null;
+            }));
+            for (int i = 0; i < workers; i++) {
+                tasks.add(stages.submit(() -> {
+                    map(parsed, mapped);
+                    return null;
+                }));
+            }
+
+            try {
+                processed = write(mapped, upsert, listener);
+                for (Future<?> task : tasks) task.get();
+            } catch (ExecutionException e) {
+                tasks.forEach(task -> task.cancel(true));
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            } catch (Exception e) {
+                tasks.forEach(task -> task.cancel(true));
+                throw e;
+            }
+        }
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+        logger.info(String.format("Imported %d people rows in %.2f s (%.0f rows/s) with %d workers%s",
+                processed, seconds, processed / seconds, workers, upsert ? " in upsert mode" : ""));
+        return processed;
+    }
+
+    private void parse(FileImporter importer, InputStream inputStream, BlockingQueue<ParsedChunk> parsed) throws Exception {
+        try {
+            long[] nextSequence = {0};
+            long[] lastHandOff = {System.nanoTime()};
+            importer.importRows(inputStream, personImportService.getChunkSize(), (chunk, rows) -> {
+                long ready = System.nanoTime();
+                parseTimer.record(ready - lastHandOff[0], TimeUnit.NANOSECONDS);
+                put(parsed, new ParsedChunk(nextSequence[0]++, rows, chunk));
+                lastHandOff[0] = System.nanoTime();
+                parseBlockedTimer.record(lastHandOff[0] - ready, TimeUnit.NANOSECONDS);
+            });
+        } finally {
+            // Every mapper needs its own end marker; on failure the mappers still drain and stop
+            for (int i = 0; i < workers; i++) put(parsed, END_OF_INPUT);
+        }
+    }
+
+    private void map(BlockingQueue<ParsedChunk> parsed, BlockingQueue<MappedChunk> mapped) throws InterruptedException {
+        boolean cancelled = false;
+        try {
+            while (true) {
+                ParsedChunk chunk = parsed.take();
+                if (chunk == END_OF_INPUT) return;
+
+                long started = System.nanoTime();
+                MappedChunk result = mapChunk(chunk);
+                long ready = System.nanoTime();
+                mapTimer.record(ready - started, TimeUnit.NANOSECONDS);
+
+                mapped.put(result);
+                mapBlockedTimer.record(System.nanoTime() - ready, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            // Only happens when the writer gave up, so nobody is left to read an end marker
+            cancelled = true;
+            throw e;
+        } finally {
+            if (!cancelled) mapped.put(END_OF_MAPPING);
+        }
+    }
+
+    private long write(BlockingQueue<MappedChunk> mapped, boolean upsert, Listener listener) throws InterruptedException {
+        long processed = 0;
+        int finishedMappers = 0;
+        // Chunks finished ahead of a slower mapper wait here, so rows are saved and reported in file order
+        Map<Long, MappedChunk> pending = new HashMap<>();
+        long nextSequence = 0;
+        while (finishedMappers < workers) {
+            MappedChunk chunk = mapped.take();
+            if (chunk == END_OF_MAPPING) {
+                finishedMappers++;
+                continue;
+            }
+
+            pending.put(chunk.sequence(), chunk);
+            for (MappedChunk next; (next = pending.remove(nextSequence)) != null; nextSequence++) {
+                processed += writeChunk(next, upsert, listener);
+            }
+        }
+        return processed;
+    }
+
+    private int writeChunk(MappedChunk chunk, boolean upsert, Listener listener) {
+        List<ImportRowErrorDTO> errors = new ArrayList<>(chunk.errors());
+        long started = System.nanoTime();
+        List<Person> saved = chunk.people().isEmpty()
+                ? List.of()
+                : personImportService.savePeopleOrRows(chunk.people(), chunk.rows(), upsert,
+                        (row, message) -> errors.add(new ImportRowErrorDTO(row, message)));
+        writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        importedRows.increment(saved.size());
+        failedRows.increment(errors.size());
+        for (ImportRowErrorDTO error : errors) listener.rowFailed(error.getRow(), error.getMessage());
+        listener.chunkSaved(chunk.processed(), saved);
+        return chunk.processed();
+    }
+
+    private MappedChunk mapChunk(ParsedChunk chunk) {
+        List<Person> people = new ArrayList<>(chunk.people().size());
+        List<Long> rows = new ArrayList<>(chunk.people().size());
+        List<ImportRowErrorDTO> errors = new ArrayList<>();
+
+        for (int i = 0; i < chunk.people().size(); i++) {
+            long row = chunk.rows().get(i);
+            PersonDTO dto = chunk.people().get(i);
+            String error = validate(dto);
+            if (error != null) {
+                errors.add(new ImportRowErrorDTO(row, error));
+                continue;
+            }
+            try {
+                people.add(parseObject(dto, Person.class));
+                rows.add(row);
+            } catch (RuntimeException e) {
+                errors.add(new ImportRowErrorDTO(row, e.getMessage()));
+            }
+        }
+        return new MappedChunk(chunk.sequence(), chunk.people().size(), people, rows, errors);
+    }
+
+    // Mirrors the person table constraints so bad rows are rejected before they reach a batch
+    private static String validate(PersonDTO person) {
+        String error = checkText("first_name", person.getFirstName(), 80);
+        if (error == null) error = checkText("last_name", person.getLastName(), 80);
+        if (error == null) error = checkText("address", person.getAddress(), 100);
+        if (error == null) error = checkText("gender", person.getGender(), 6);
+        return error;
+    }
+
+    private static String checkText(String field, String value, int maxLength) {
+        if (value == null || value.isBlank()) return field + " is required";
+        if (value.length() > maxLength) return field + " must have at most " + maxLength + " characters";
+        return null;
+    }
+
+    private static void put(BlockingQueue<ParsedChunk> queue, ParsedChunk chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import was interrupted!", e);
+        }
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String name, String stage) {
+        return Timer.builder(name).tag("stage", stage).register(meterRegistry);
+    }
+}
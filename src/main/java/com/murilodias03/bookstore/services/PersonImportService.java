@@ -0,0 +1,85 @@
+package com.murilodias03.bookstore.services;
+
+import com.murilodias03.bookstore.model.Person;
+import com.murilodias03.bookstore.repositories.PersonRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+@Service
+public class PersonImportService {
+
+    private final PersonRepository personRepository;
+    private final TransactionTemplate transaction;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public PersonImportService(PersonRepository personRepository,
+                               PlatformTransactionManager transactionManager,
+                               EntityManager entityManager,
+                               @Value("${import.chunk-size:1000}") int chunkSize) {
+        this.personRepository = personRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<Person> savePeople(List<Person> people) {
+        // One transaction per chunk; flushing sends the inserts as JDBC batches and clearing keeps the context small
+        return transaction.execute(status -> {
+            List<Person> saved = personRepository.saveAll(people);
+            entityManager.flush();
+            entityManager.clear();
+            return saved;
+        });
+    }
+
+    public List<Person> upsertPeople(List<Person> people) {
+        // Matches existing rows by natural key, so resending the same file inserts nothing and returns only the changes
+        return transaction.execute(status -> personRepository.upsertAll(people));
+    }
+
+    public List<Person> savePeopleOrRows(List<Person> people, List<Long> rows, boolean upsert,
+                                         BiConsumer<Long, String> rowErrors) {
+        try {
+            return write(people, upsert);
+        } catch (RuntimeException chunkFailure) {
+            // Inside a caller's transaction the failed statement already doomed it, so there is nothing to retry
+            if (TransactionSynchronizationManager.isActualTransactionActive()) throw chunkFailure;
+            // Retry the failed chunk row by row so only the offending rows are reported and skipped
+            List<Person> saved = new ArrayList<>(people.size());
+            for (int i = 0; i < people.size(); i++) {
+                Person person = people.get(i);
+                // The rolled back batch may already have assigned ids, which would turn the retry into a merge
+                person.setId(null);
+                try {
+                    saved.addAll(write(List.of(person), upsert));
+                } catch (RuntimeException rowFailure) {
+                    rowErrors.accept(rows.get(i), rootCauseMessage(rowFailure));
+                }
+            }
+            return saved;
+        }
+    }
+
+    private List<Person> write(List<Person> people, boolean upsert) {
+        return upsert ? upsertPeople(people) : savePeople(people);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private static String rootCauseMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) cause = cause.getCause();
+        return cause.getMessage();
+    }
+}
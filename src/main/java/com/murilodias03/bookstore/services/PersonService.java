@@ -10,14 +10,19 @@ import com.murilodias03.bookstore.exceptions.ResourceNotFoundException;
 import static com.murilodias03.bookstore.mapper.ObjectMapper.parseObject;
 
 import com.murilodias03.bookstore.file.exporter.contract.PersonExporter;
+import com.murilodias03.bookstore.file.exporter.contract.StreamingPersonExporter;
 import com.murilodias03.bookstore.file.exporter.factory.FileExporterFactory;
 import com.murilodias03.bookstore.file.importer.contract.FileImporter;
 import com.murilodias03.bookstore.file.importer.factory.FileImporterFactory;
+import com.murilodias03.bookstore.hateoas.LinkTemplates;
 import com.murilodias03.bookstore.model.Person;
 import com.murilodias03.bookstore.repositories.PersonRepository;
+import com.murilodias03.bookstore.search.CatalogSearchIndex;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
@@ -25,15 +30,26 @@ import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PersonService {
@@ -42,16 +58,33 @@ public class PersonService {
     private final PersonRepository personRepository;
     private final FileImporterFactory fileImporter;
     private final FileExporterFactory fileExporter;
+    private final CatalogSearchIndex searchIndex;
+    private final PersonImportPipeline importPipeline;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EntityManager entityManager;
 
     private final PagedResourcesAssembler<PersonDTO> assembler;
 
+    private final LinkTemplates personLinks = new LinkTemplates(PersonService::buildLinks);
+
     public PersonService(PersonRepository personRepository,
                          FileImporterFactory fileImporter,
                          FileExporterFactory fileExporter,
+                         CatalogSearchIndex searchIndex,
+                         PersonImportPipeline importPipeline,
+                         PlatformTransactionManager transactionManager,
+                         EntityManager entityManager,
                          PagedResourcesAssembler<PersonDTO> assembler) {
         this.personRepository = personRepository;
         this.fileImporter = fileImporter;
         this.fileExporter = fileExporter;
+        this.searchIndex = searchIndex;
+        this.importPipeline = importPipeline;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.entityManager = entityManager;
         this.assembler = assembler;
     }
 
@@ -67,6 +100,38 @@ public class PersonService {
         return buildPagedModel(pageable, people);
     }
 
+    public PagedModel<EntityModel<PersonDTO>> quickSearch(String term, Pageable pageable) {
+        logger.info("Quick searching people!");
+
+        var ids = searchIndex.searchPeople(term);
+        if (ids.isEmpty()) return findByName(term, pageable);
+
+        var people = loadPage(ids.get(), pageable);
+
+        Link quickSearchLink = WebMvcLinkBuilder.linkTo(
+                        WebMvcLinkBuilder.methodOn(PersonController.class)
+                                .quickSearch(term, pageable.getPageNumber(), pageable.getPageSize()))
+                .withSelfRel();
+
+        return buildPagedModel(people, quickSearchLink);
+    }
+
+    public PagedModel<EntityModel<PersonDTO>> search(String query, Pageable pageable) {
+        logger.info("Searching people!");
+
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) throw new BadRequestException("Please set a valid search term!");
+
+        var people = personRepository.searchPeople(escapeLikePattern(query.trim().toLowerCase()), tsQuery, pageable);
+
+        Link searchLink = WebMvcLinkBuilder.linkTo(
+                        WebMvcLinkBuilder.methodOn(PersonController.class)
+                                .search(query, pageable.getPageNumber(), pageable.getPageSize()))
+                .withSelfRel();
+
+        return buildPagedModel(people, searchLink);
+    }
+
     public PersonDTO findById(Long id) {
         logger.info("Finding one person!");
 
@@ -95,10 +160,31 @@ public class PersonService {
         }
     }
 
+    public StreamingResponseBody exportAll(String acceptHeader) {
+        logger.info("Exporting all people!");
+
+        StreamingPersonExporter exporter = fileExporter.getStreamingExporter(acceptHeader);
+
+        // Runs on the async request thread; the cursor needs its own transaction to stay open
+        return outputStream -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<Person> people = personRepository.streamAll()) {
+                        exporter.exportPeople(people.map(this::toDetachedDTO), outputStream);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
     public Resource exportPerson(Long id, String acceptHeader) {
         logger.info("Exporting data of one person!");
 
-        var person = personRepository.findById(id)
+        var person = personRepository.findWithBooksById(id)
                 .map(entity -> parseObject(entity, PersonDTO.class))
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
 
@@ -114,12 +200,14 @@ public class PersonService {
         if (person == null) throw new RequeriedObjectsIsNullException();
         logger.info("Creating one person!");
         var entity = parseObject(person, Person.class);
-        var dto = parseObject(personRepository.save(entity), PersonDTO.class);
+        var persisted = personRepository.save(entity);
+        searchIndex.indexPerson(persisted);
+        var dto = parseObject(persisted, PersonDTO.class);
         addHateoasLinks(dto);
         return dto;
     }
 
-    public List<PersonDTO> createWithFile(MultipartFile file) {
+    public List<PersonDTO> createWithFile(MultipartFile file, boolean upsert) {
         logger.info("Importing people from file!");
 
         if (file.isEmpty()) throw new BadRequestException("Please set a valid file!");
@@ -130,20 +218,42 @@ public class PersonService {
 
             FileImporter importer = fileImporter.getImporter(fileName);
 
-            List<Person> entities = importer.importFile(inputStream)
-                    .stream()
-                    .map(dto -> personRepository.save(parseObject(dto, Person.class)))
-                    .toList();
-
-            return entities
-                .stream()
-                .map(entity -> {
-                    var dto = parseObject(entity, PersonDTO.class);
-                    addHateoasLinks(dto);
-                    return dto;
-                })
-                .toList();
-
+            // The chunk transactions join this one, so an invalid row rolls the whole file back and a 400 means
+            // nothing was saved; /person/import-jobs is the path that skips invalid rows and keeps the rest
+            List<Person> saved = transaction.execute(status -> {
+                List<Person> people = new ArrayList<>();
+                try {
+                    importPipeline.run(importer, inputStream, upsert, new PersonImportPipeline.Listener() {
+                        @Override
+                        public void chunkSaved(int processed, List<Person> chunk) {
+                            people.addAll(chunk);
+                        }
+
+                        @Override
+                        public void rowFailed(long row, String message) {
+                            throw new BadRequestException("Invalid row " + row + ": " + message + ". Nothing was imported!");
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new FileStorageException("Error processing the file!", e);
+                }
+                return people;
+            });
+
+            // Only committed people reach the search index
+            List<PersonDTO> people = new ArrayList<>(saved.size());
+            for (Person entity : saved) {
+                searchIndex.indexPerson(entity);
+                var dto = parseObject(entity, PersonDTO.class);
+                addHateoasLinks(dto);
+                people.add(dto);
+            }
+            return people;
+
+        } catch (BadRequestException e) {
+            throw e;
         } catch (Exception e) {
             throw new FileStorageException("Error processing the file!");
         }
@@ -162,7 +272,9 @@ public class PersonService {
         entity.setAddress(person.getAddress());
         entity.setGender(person.getGender());
 
-        var dto = parseObject(personRepository.save(entity), PersonDTO.class);
+        var persisted = personRepository.save(entity);
+        searchIndex.indexPerson(persisted);
+        var dto = parseObject(persisted, PersonDTO.class);
 
         addHateoasLinks(dto);
 
@@ -191,15 +303,10 @@ public class PersonService {
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
 
         personRepository.delete(entity);
+        searchIndex.removePerson(id);
     }
 
     private PagedModel<EntityModel<PersonDTO>> buildPagedModel(Pageable pageable, Page<Person> people) {
-        var peopleWithLinks = people.map(person -> {
-            var dto = parseObject(person, PersonDTO.class);
-            addHateoasLinks(dto);
-            return dto;
-        });
-
         Link findAllLink = WebMvcLinkBuilder.linkTo(
                         WebMvcLinkBuilder.methodOn(PersonController.class)
                                 .findAll(
@@ -208,18 +315,72 @@ public class PersonService {
                                         String.valueOf(pageable.getSort())))
                 .withSelfRel();
 
-        return assembler.toModel(peopleWithLinks, findAllLink);
+        return buildPagedModel(people, findAllLink);
+    }
+
+    private PagedModel<EntityModel<PersonDTO>> buildPagedModel(Page<Person> people, Link selfLink) {
+        var links = personLinks.forCurrentRequest();
+        var peopleWithLinks = people.map(person -> {
+            var dto = parseObject(person, PersonDTO.class);
+            links.addTo(dto, dto.getId());
+            return dto;
+        });
+
+        return assembler.toModel(peopleWithLinks, selfLink);
+    }
+
+    private PersonDTO toDetachedDTO(Person person) {
+        var dto = parseObject(person, PersonDTO.class);
+        entityManager.detach(person);
+        return dto;
+    }
+
+    private Page<Person> loadPage(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+
+        Map<Long, Person> byId = personRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Person::getId, Function.identity()));
+        List<Person> people = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(people, pageable, ids.size());
+    }
+
+    private static String toPrefixTsQuery(String query) {
+        if (query == null) return "";
+
+        StringBuilder tsQuery = new StringBuilder();
+        for (String token : query.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (!tsQuery.isEmpty()) tsQuery.append(" & ");
+            tsQuery.append(token).append(":*");
+        }
+        return tsQuery.toString();
+    }
+
+    private static String escapeLikePattern(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     private void addHateoasLinks(PersonDTO dto) {
-        dto.add(linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"));
-        dto.add(linkTo(methodOn(PersonController.class).findById(dto.getId())).withSelfRel().withType("GET"));
-        dto.add(linkTo(methodOn(PersonController.class).exportPage(1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("Export people"));
-        dto.add(linkTo(methodOn(PersonController.class).findByName("", 1, 12, "asc")).withRel("findByName").withType("GET"));
-        dto.add(linkTo(methodOn(PersonController.class).create(dto)).withRel("create").withType("POST"));
-        dto.add(linkTo(methodOn(PersonController.class)).slash("createWithFile").withRel("createWithFile").withType("POST"));
-        dto.add(linkTo(methodOn(PersonController.class).update(dto)).withRel("update").withType("PUT"));
-        dto.add(linkTo(methodOn(PersonController.class).disablePerson(dto.getId())).withRel("disable").withType("PATCH"));
-        dto.add(linkTo(methodOn(PersonController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
+        personLinks.forCurrentRequest().addTo(dto, dto.getId());
+    }
+
+    private static List<Link> buildLinks(Long id) {
+        return List.of(
+                linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(PersonController.class).findById(id)).withSelfRel().withType("GET"),
+                linkTo(methodOn(PersonController.class).exportPage(1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("Export people"),
+                linkTo(methodOn(PersonController.class).findByName("", 1, 12, "asc")).withRel("findByName").withType("GET"),
+                linkTo(methodOn(PersonController.class).create(null)).withRel("create").withType("POST"),
+                linkTo(methodOn(PersonController.class)).slash("createWithFile").withRel("createWithFile").withType("POST"),
+                linkTo(methodOn(PersonController.class).update(null)).withRel("update").withType("PUT"),
+                linkTo(methodOn(PersonController.class).disablePerson(id)).withRel("disable").withType("PATCH"),
+                linkTo(methodOn(PersonController.class).delete(id)).withRel("delete").withType("DELETE")
+        );
     }
 }
\ No newline at end of file
@@ -1,20 +1,25 @@
 package com.murilodias03.bookstore.services;
 
 import com.murilodias03.bookstore.repositories.UserRepository;
+import com.murilodias03.bookstore.security.jwt.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    private final PrincipalCache principalCache;
+
+    public UserService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -23,4 +28,15 @@ public class UserService implements UserDetailsService {
         if (user != null) return user;
         else throw new UsernameNotFoundException("Username "+ username +" not found!");
     }
+
+    // Called by the authentication provider after a login whose stored hash uses outdated settings
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        var user = userRepository.findByUsername(userDetails.getUsername());
+        if (user == null) throw new UsernameNotFoundException("Username " + userDetails.getUsername() + " not found!");
+        user.setPassword(newPassword);
+        var saved = userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
+        return saved;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE person
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (to_tsvector('simple', first_name || ' ' || last_name || ' ' || address)) STORED;
+
+CREATE INDEX idx_person_search_vector ON person USING gin (search_vector);
+
+CREATE INDEX idx_person_search_text_trgm ON person
+    USING gin (lower(first_name || ' ' || last_name || ' ' || address) gin_trgm_ops);
+
+CREATE INDEX idx_person_first_name_trgm ON person USING gin (first_name gin_trgm_ops);
@@ -0,0 +1 @@
+ALTER TABLE person ALTER COLUMN id SET INCREMENT BY 50;
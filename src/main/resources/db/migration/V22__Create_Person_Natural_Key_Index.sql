@@ -0,0 +1 @@
+CREATE INDEX idx_person_natural_key ON person (first_name, last_name, address);
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS file_blob (
+    sha256 VARCHAR(64) NOT NULL PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS file_metadata (
+    name VARCHAR(255) NOT NULL PRIMARY KEY,
+    sha256 VARCHAR(64) NOT NULL REFERENCES file_blob (sha256),
+    size BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_file_metadata_sha256 ON file_metadata (sha256);
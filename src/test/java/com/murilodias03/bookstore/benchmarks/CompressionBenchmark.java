@@ -0,0 +1,78 @@
+package com.murilodias03.bookstore.benchmarks;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.file.compression.ContentEncoding;
+import com.murilodias03.bookstore.file.exporter.impl.CsvExporter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class CompressionBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"GZIP", "ZSTD"})
+    private ContentEncoding encoding;
+
+    private byte[] export;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new CsvExporter().exportPeople(IntStream.rangeClosed(1, rows).mapToObj(i -> {
+            PersonDTO person = new PersonDTO();
+            person.setId((long) i);
+            person.setFirstName("First Name " + i);
+            person.setLastName("Last Name " + i);
+            person.setAddress("Address " + i);
+            person.setGender(i % 2 == 0 ? "Male" : "Female");
+            person.setEnabled(true);
+            return person;
+        }), outputStream);
+        export = outputStream.toByteArray();
+        compressed = compress();
+
+        // The bytes saved are what the CPU time below pays for
+        System.out.printf("%n%s %d rows: %d -> %d bytes%n", encoding, rows, export.length, compressed.length);
+    }
+
+    @Benchmark
+    public byte[] compressExport() throws IOException {
+        return compress();
+    }
+
+    @Benchmark
+    public byte[] decompressExport() throws IOException {
+        return encoding.decompress(new ByteArrayInputStream(compressed)).readAllBytes();
+    }
+
+    private byte[] compress() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(export.length / 4);
+        try (OutputStream out = encoding.compress(outputStream)) {
+            out.write(export);
+        }
+        return outputStream.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
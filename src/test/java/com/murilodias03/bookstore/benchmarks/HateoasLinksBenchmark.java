@@ -0,0 +1,90 @@
+package com.murilodias03.bookstore.benchmarks;
+
+import com.murilodias03.bookstore.controllers.PersonController;
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.hateoas.LinkTemplates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HateoasLinksBenchmark {
+
+    @Param({"12", "100", "500"})
+    private int pageSize;
+
+    private final LinkTemplates templates = new LinkTemplates(HateoasLinksBenchmark::buildLinks);
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<PersonDTO> linkToPerRow() {
+        List<PersonDTO> page = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            PersonDTO dto = new PersonDTO();
+            dto.add(buildLinks(id));
+            page.add(dto);
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<PersonDTO> cachedTemplates() {
+        List<PersonDTO> page = new ArrayList<>(pageSize);
+        var links = templates.forCurrentRequest();
+        for (long id = 1; id <= pageSize; id++) {
+            PersonDTO dto = new PersonDTO();
+            links.addTo(dto, id);
+            page.add(dto);
+        }
+        return page;
+    }
+
+    private static List<Link> buildLinks(Long id) {
+        return List.of(
+                linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(PersonController.class).findById(id)).withSelfRel().withType("GET"),
+                linkTo(methodOn(PersonController.class).exportPage(1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("Export people"),
+                linkTo(methodOn(PersonController.class).findByName("", 1, 12, "asc")).withRel("findByName").withType("GET"),
+                linkTo(methodOn(PersonController.class).create(null)).withRel("create").withType("POST"),
+                linkTo(methodOn(PersonController.class)).slash("createWithFile").withRel("createWithFile").withType("POST"),
+                linkTo(methodOn(PersonController.class).update(null)).withRel("update").withType("PUT"),
+                linkTo(methodOn(PersonController.class).disablePerson(id)).withRel("disable").withType("PATCH"),
+                linkTo(methodOn(PersonController.class).delete(id)).withRel("delete").withType("DELETE")
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HateoasLinksBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.murilodias03.bookstore.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.murilodias03.bookstore.security.jwt.JwtKeyStore;
+import com.murilodias03.bookstore.security.jwt.JwtTokenProvider;
+import com.murilodias03.bookstore.security.jwt.PrincipalCache;
+import com.murilodias03.bookstore.security.jwt.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtKeySetBenchmark {
+
+    @Param({"RS256", "ES256"})
+    private JwtKeyStore.SigningAlgorithm algorithm;
+
+    private Path directory;
+    private JwtKeyStore keyStore;
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        directory = Files.createTempDirectory("jwt-keys");
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm == JwtKeyStore.SigningAlgorithm.RS256 ? "RSA" : "EC");
+        generator.initialize(algorithm == JwtKeyStore.SigningAlgorithm.RS256 ? 2048 : 256);
+        KeyPair keyPair = generator.generateKeyPair();
+        writePem(directory.resolve("k1-private.pem"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        writePem(directory.resolve("k1-public.pem"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+
+        keyStore = new JwtKeyStore(new VerifiedTokenCache(new SimpleMeterRegistry(), 0), algorithm, directory.toString(), 0, "");
+        keyStore.start();
+        provider = new JwtTokenProvider(username -> {
+            throw new IllegalStateException("claims mode must not load users");
+        }, new PrincipalCache(0), JwtTokenProvider.AuthenticationMode.CLAIMS, keyStore);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        token = provider.createAccessToken("leandro", List.of("ADMIN")).accessToken();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        keyStore.stop();
+        FileSystemUtils.deleteRecursively(directory);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    // The shared verifier looks the key up by kid in the current key set
+    @Benchmark
+    public DecodedJWT verifyWithKeySet() {
+        return provider.decodeToken(token);
+    }
+
+    // The naive alternative: resolve the key file from the kid and parse it for every token
+    @Benchmark
+    public DecodedJWT verifyWithKeyFromFile() throws Exception {
+        String kid = JWT.decode(token).getKeyId();
+        String pem = Files.readString(directory.resolve(kid + "-public.pem"));
+        byte[] encoded = Base64.getMimeDecoder().decode(pem.replaceAll("-----[A-Z ]+-----", ""));
+        Algorithm verification = algorithm == JwtKeyStore.SigningAlgorithm.RS256
+                ? Algorithm.RSA256((RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(encoded)), null)
+                : Algorithm.ECDSA256((ECPublicKey) KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(encoded)), null);
+        return JWT.require(verification).build().verify(token);
+    }
+
+    private static void writePem(Path file, String type, byte[] encoded) throws Exception {
+        Files.writeString(file, "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(encoded)
+                + "\n-----END " + type + "-----\n");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtKeySetBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.murilodias03.bookstore.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.murilodias03.bookstore.security.jwt.JwtKeyStore;
+import com.murilodias03.bookstore.security.jwt.JwtTokenFilter;
+import com.murilodias03.bookstore.security.jwt.JwtTokenProvider;
+import com.murilodias03.bookstore.security.jwt.PrincipalCache;
+import com.murilodias03.bookstore.security.jwt.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JwtTokenProvider provider;
+    private JwtTokenFilter filter;
+    private JwtTokenFilter cachingFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private String token;
+    private byte[] secret;
+
+    @Setup
+    public void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        provider = new JwtTokenProvider(username -> {
+            throw new IllegalStateException("claims mode must not load users");
+        }, new PrincipalCache(0), JwtTokenProvider.AuthenticationMode.CLAIMS, new JwtKeyStore(
+                new VerifiedTokenCache(new SimpleMeterRegistry(), 0), JwtKeyStore.SigningAlgorithm.HS256, "", 0, ""));
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        filter = new JwtTokenFilter(provider, new VerifiedTokenCache(new SimpleMeterRegistry(), 0));
+        cachingFilter = new JwtTokenFilter(provider, new VerifiedTokenCache(new SimpleMeterRegistry(), 10_000));
+
+        token = provider.createAccessToken("leandro", List.of("ADMIN", "MANAGER")).accessToken();
+        secret = Base64.getEncoder().encodeToString("secret".getBytes()).getBytes();
+
+        request = new MockHttpServletRequest("GET", "/api/person/v1");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        return authenticate(filter);
+    }
+
+    // A hot client reusing one access token, served from the verified-token cache
+    @Benchmark
+    public Object cachingFilter() throws Exception {
+        return authenticate(cachingFilter);
+    }
+
+    // What the filter did before: a new Algorithm and JWTVerifier per call, and the token verified twice
+    @Benchmark
+    public Object verifierPerCall() {
+        DecodedJWT validated = JWT.require(Algorithm.HMAC256(secret)).build().verify(token);
+        if (validated.getExpiresAt().before(new Date())) return null;
+        DecodedJWT decodedJWT = JWT.require(Algorithm.HMAC256(secret)).build().verify(token);
+        return provider.getAuthentication(decodedJWT);
+    }
+
+    private Object authenticate(JwtTokenFilter jwtTokenFilter) throws Exception {
+        jwtTokenFilter.doFilter(request, response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.murilodias03.bookstore.benchmarks;
+
+import com.github.dozermapper.core.DozerBeanMapperBuilder;
+import com.github.dozermapper.core.Mapper;
+import com.murilodias03.bookstore.data.dto.BookDTO;
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.model.Book;
+import com.murilodias03.bookstore.model.Person;
+import com.murilodias03.bookstore.unittests.mapper.mocks.MockBook;
+import com.murilodias03.bookstore.unittests.mapper.mocks.MockPerson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.murilodias03.bookstore.mapper.ObjectMapper.parseListObjects;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMapperBenchmark {
+
+    @Param({"12", "100", "500"})
+    private int pageSize;
+
+    private final Mapper dozer = DozerBeanMapperBuilder.buildDefault();
+
+    private List<Person> people;
+    private List<Book> books;
+
+    @Setup
+    public void setUp() {
+        MockPerson mockPerson = new MockPerson();
+        MockBook mockBook = new MockBook();
+        people = new ArrayList<>(pageSize);
+        books = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            people.add(mockPerson.mockEntity(i));
+            books.add(mockBook.mockEntity(i));
+        }
+    }
+
+    @Benchmark
+    public List<PersonDTO> peopleWithDozer() {
+        List<PersonDTO> result = new ArrayList<>(people.size());
+        for (Person person : people) {
+            result.add(dozer.map(person, PersonDTO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<PersonDTO> peopleWithConverters() {
+        return parseListObjects(people, PersonDTO.class);
+    }
+
+    @Benchmark
+    public List<BookDTO> booksWithDozer() {
+        List<BookDTO> result = new ArrayList<>(books.size());
+        for (Book book : books) {
+            result.add(dozer.map(book, BookDTO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<BookDTO> booksWithConverters() {
+        return parseListObjects(books, BookDTO.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ObjectMapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
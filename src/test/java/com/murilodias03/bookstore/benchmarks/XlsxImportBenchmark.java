@@ -0,0 +1,90 @@
+package com.murilodias03.bookstore.benchmarks;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.file.importer.impl.XlsxImporter;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class XlsxImportBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private final XlsxImporter importer = new XlsxImporter();
+
+    private byte[] spreadsheet;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            var sheet = workbook.createSheet("People");
+            Row header = sheet.createRow(0);
+            String[] headers = {"first_name", "last_name", "address", "gender"};
+            for (int i = 0; i < headers.length; i++) header.createCell(i).setCellValue(headers[i]);
+
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("First Name " + i);
+                row.createCell(1).setCellValue("Last Name " + i);
+                row.createCell(2).setCellValue("Address " + i);
+                row.createCell(3).setCellValue(i % 2 == 0 ? "Male" : "Female");
+            }
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            spreadsheet = outputStream.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public void saxImporter(Blackhole blackhole) throws Exception {
+        importer.importFile(new ByteArrayInputStream(spreadsheet), 1000, blackhole::consume);
+    }
+
+    // The previous XSSFWorkbook based implementation, kept here as the baseline
+    @Benchmark
+    public void domImporter(Blackhole blackhole) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(spreadsheet))) {
+            Iterator<Row> rowIterator = workbook.getSheetAt(0).iterator();
+            if (rowIterator.hasNext()) rowIterator.next();
+
+            while (rowIterator.hasNext()) {
+                Row row = rowIterator.next();
+                if (row.getCell(0) == null || row.getCell(0).getCellType() == CellType.BLANK) continue;
+
+                PersonDTO personDTO = new PersonDTO();
+                personDTO.setFirstName(row.getCell(0).getStringCellValue());
+                personDTO.setLastName(row.getCell(1).getStringCellValue());
+                personDTO.setAddress(row.getCell(2).getStringCellValue());
+                personDTO.setGender(row.getCell(3).getStringCellValue());
+                personDTO.setEnabled(true);
+                blackhole.consume(personDTO);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(XlsxImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -305,6 +305,37 @@ class PersonControllerJsonTest extends AbstractIntegrationTest {
         assertFalse(personFour.getEnabled());
     }
 
+    @Test
+    @Order(8)
+    void searchTest() throws JsonProcessingException {
+
+        // {{baseUrl}}/person/search?q=fawnia tutt&page=0&size=12
+        var content = given(specification)
+                .accept(MediaType.APPLICATION_JSON_VALUE)
+                .queryParams("q", "fawnia tutt", "page", 0, "size", 12)
+                .when()
+                .get("search")
+                .then()
+                .statusCode(200)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .extract()
+                .body()
+                .asString();
+
+        WrapperPersonDTO wrapper = objectMapper.readValue(content, WrapperPersonDTO.class);
+        List<PersonDTO> people = wrapper.getEmbedded().getPeople();
+
+        PersonDTO personOne = people.get(0);
+
+        assertNotNull(personOne.getId());
+        assertTrue(personOne.getId() > 0);
+
+        assertEquals("Fawnia", personOne.getFirstName());
+        assertEquals("Tutt", personOne.getLastName());
+        assertEquals("36 Graedel Avenue", personOne.getAddress());
+        assertEquals("Female", personOne.getGender());
+    }
+
 
     private void mockPerson() {
         personDTO.setFirstName("Murilo");
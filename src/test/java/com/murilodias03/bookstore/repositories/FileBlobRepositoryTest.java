@@ -0,0 +1,46 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.integrationtests.testcontainers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FileBlobRepositoryTest extends AbstractIntegrationTest {
+
+    private static final String SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Autowired
+    FileBlobRepository blobRepository;
+
+    @Autowired
+    FileMetadataRepository metadataRepository;
+
+    @Test
+    void blobIsDeletedOnlyWhenTheLastNameReleasesIt() {
+        metadataRepository.lockName("a.txt");
+        blobRepository.acquire(SHA256, 5);
+        metadataRepository.upsert("a.txt", SHA256, 5);
+        blobRepository.acquire(SHA256, 5);
+        metadataRepository.upsert("b.txt", SHA256, 5);
+
+        assertEquals(2, blobRepository.findById(SHA256).orElseThrow().getRefCount());
+        assertEquals(SHA256, metadataRepository.findSha256ByName("b.txt").orElseThrow());
+
+        metadataRepository.deleteByName("a.txt");
+        blobRepository.release(SHA256);
+        assertEquals(0, blobRepository.deleteIfUnreferenced(SHA256));
+
+        metadataRepository.deleteByName("b.txt");
+        blobRepository.release(SHA256);
+        assertEquals(1, blobRepository.deleteIfUnreferenced(SHA256));
+        assertTrue(metadataRepository.findSha256ByName("b.txt").isEmpty());
+    }
+}
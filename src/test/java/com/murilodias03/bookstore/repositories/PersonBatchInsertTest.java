@@ -0,0 +1,66 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.integrationtests.testcontainers.AbstractIntegrationTest;
+import com.murilodias03.bookstore.model.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PersonBatchInsertTest extends AbstractIntegrationTest {
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveAllAllocatesIdsInBlocksAndBatchesInserts() {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Person person = new Person();
+            person.setFirstName("Batch" + i);
+            person.setLastName("Insert");
+            person.setAddress("Batch Street " + i);
+            person.setGender("Male");
+            person.setEnabled(true);
+            people.add(person);
+        }
+
+        long before = statistics.getPrepareStatementCount();
+        personRepository.saveAll(people);
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount() - before;
+
+        assertTrue(people.stream().allMatch(person -> person.getId() != null));
+        // A few sequence calls for 120 ids plus one prepared insert per JDBC batch, instead of 120 inserts
+        assertTrue(statements <= 8, "Expected batched inserts but prepared " + statements + " statements");
+    }
+}
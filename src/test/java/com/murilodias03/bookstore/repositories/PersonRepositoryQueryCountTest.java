@@ -0,0 +1,82 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.integrationtests.testcontainers.AbstractIntegrationTest;
+import com.murilodias03.bookstore.model.Person;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static com.murilodias03.bookstore.mapper.ObjectMapper.parseListObjects;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PersonRepositoryQueryCountTest extends AbstractIntegrationTest {
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllIssuesConstantNumberOfStatements() {
+        long smallPageStatements = countStatementsForPage(10);
+        long largePageStatements = countStatementsForPage(1000);
+
+        assertEquals(2, largePageStatements);
+        assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    @Test
+    void findPeopleByNameDoesNotLoadBooks() {
+        Page<Person> people = personRepository.findPeopleByName("a",
+                PageRequest.of(0, 1000, Sort.by(Sort.Direction.ASC, "firstName")));
+        parseListObjects(people.getContent(), PersonDTO.class);
+
+        assertFalse(people.isEmpty());
+        assertTrue(statistics.getPrepareStatementCount() <= 2);
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void findWithBooksByIdFetchesBooksInOneStatement() {
+        Person person = personRepository.findWithBooksById(1L).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(person.getBooks()));
+        assertFalse(person.getBooks().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private long countStatementsForPage(int size) {
+        statistics.clear();
+        Page<Person> people = personRepository.findAll(
+                PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "firstName")));
+        parseListObjects(people.getContent(), PersonDTO.class);
+
+        assertEquals(size, people.getNumberOfElements());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        return statistics.getPrepareStatementCount();
+    }
+}
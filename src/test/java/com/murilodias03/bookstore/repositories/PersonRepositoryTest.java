@@ -12,6 +12,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(SpringExtension.class)
@@ -68,4 +70,15 @@ class PersonRepositoryTest extends AbstractIntegrationTest {
         assertEquals("Female", person.getGender());
         assertFalse(person.getEnabled());
     }
+
+    @Test
+    @Order(3)
+    void streamAll() {
+        try (Stream<Person> people = personRepository.streamAll()) {
+            var ids = people.map(Person::getId).toList();
+
+            assertEquals(personRepository.count(), ids.size());
+            assertEquals(ids.stream().sorted().toList(), ids);
+        }
+    }
 }
\ No newline at end of file
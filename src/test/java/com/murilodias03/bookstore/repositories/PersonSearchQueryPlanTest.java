@@ -0,0 +1,75 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.integrationtests.testcontainers.AbstractIntegrationTest;
+import com.murilodias03.bookstore.model.Person;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PersonSearchQueryPlanTest extends AbstractIntegrationTest {
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchPeopleRanksBestMatchFirst() {
+        Page<Person> people = personRepository.searchPeople("fawnia tutt", "fawnia:* & tutt:*", PageRequest.of(0, 12));
+
+        assertFalse(people.isEmpty());
+        Person person = people.getContent().getFirst();
+        assertEquals("Fawnia", person.getFirstName());
+        assertEquals("Tutt", person.getLastName());
+        assertEquals("36 Graedel Avenue", person.getAddress());
+    }
+
+    @Test
+    void searchPeopleMatchesByPrefixAcrossColumns() {
+        Page<Person> people = personRepository.searchPeople("graed", "graed:*", PageRequest.of(0, 12));
+
+        assertTrue(people.getContent().stream()
+                .anyMatch(person -> person.getAddress().equals("36 Graedel Avenue")));
+    }
+
+    @Test
+    void searchPeopleUsesSearchIndexes() {
+        String plan = explain(PersonRepository.SEARCH_COUNT_QUERY
+                .replace(":tsQuery", "'fawn:*'")
+                .replace(":term", "'fawn'"));
+
+        assertTrue(plan.contains("idx_person_search_vector"), plan);
+        assertTrue(plan.contains("idx_person_search_text_trgm"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void findPeopleByNameUsesTrigramIndex() {
+        String plan = explain("SELECT * FROM person p WHERE p.first_name LIKE '%awn%'");
+
+        assertTrue(plan.contains("idx_person_first_name_trgm"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    private String explain(String sql) {
+        // The seeded table is small enough that the planner prefers a sequential scan; this
+        // only checks that an index path exists for the query shape.
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+}
@@ -0,0 +1,107 @@
+package com.murilodias03.bookstore.repositories;
+
+import com.murilodias03.bookstore.integrationtests.testcontainers.AbstractIntegrationTest;
+import com.murilodias03.bookstore.model.Person;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PersonUpsertTest extends AbstractIntegrationTest {
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Test
+    void upsertAllInsertsOnceAndOnlyRewritesChangedRows() {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 120; i++) people.add(person("Upsert" + i, "Male"));
+
+        List<Person> inserted = personRepository.upsertAll(people);
+        long count = personRepository.count();
+
+        assertEquals(120, inserted.size());
+        assertEquals(120, new HashSet<>(inserted.stream().map(Person::getId).toList()).size());
+
+        // Resending the same rows is a no-op
+        assertTrue(personRepository.upsertAll(people).isEmpty());
+        assertEquals(count, personRepository.count());
+
+        people.get(7).setGender("Female");
+        List<Person> updated = personRepository.upsertAll(people);
+
+        assertEquals(1, updated.size());
+        assertEquals(inserted.get(7).getId(), updated.get(0).getId());
+        assertEquals("Female", updated.get(0).getGender());
+        assertEquals(count, personRepository.count());
+    }
+
+    @Test
+    void upsertAllKeepsPeopleDisabledThroughTheApi() {
+        Person stored = personRepository.upsertAll(List.of(person("Disabled", "Male"))).get(0);
+        personRepository.disablePerson(stored.getId());
+        personRepository.flush();
+
+        List<Person> updated = personRepository.upsertAll(List.of(person("Disabled", "Female")));
+
+        assertEquals(1, updated.size());
+        assertEquals(stored.getId(), updated.get(0).getId());
+        assertEquals("Female", updated.get(0).getGender());
+        assertFalse(updated.get(0).getEnabled());
+        assertTrue(personRepository.upsertAll(List.of(person("Disabled", "Female"))).isEmpty());
+    }
+
+    @Test
+    void upsertAllKeepsTheLastOccurrenceOfADuplicatedKey() {
+        List<Person> saved = personRepository.upsertAll(List.of(person("Twice", "Male"), person("Twice", "Female")));
+
+        assertEquals(1, saved.size());
+        assertEquals("Female", saved.get(0).getGender());
+    }
+
+    @Test
+    void upsertAllUpdatesTheOldestRowWhenTheKeyIsAlreadyDuplicated() {
+        // The natural key is not unique, so plain creates may already have stored it twice
+        Person oldest = personRepository.saveAndFlush(person("Existing", "Male"));
+        Person newest = personRepository.saveAndFlush(person("Existing", "Male"));
+        long count = personRepository.count();
+
+        List<Person> saved = personRepository.upsertAll(List.of(person("Existing", "Female")));
+
+        assertEquals(1, saved.size());
+        assertEquals(oldest.getId(), saved.get(0).getId());
+        assertEquals(count, personRepository.count());
+        personRepository.flush();
+        assertEquals("Male", personRepository.findById(newest.getId()).orElseThrow().getGender());
+    }
+
+    @Test
+    void upsertAllIdsDoNotCollideWithHibernateAllocatedIds() {
+        personRepository.upsertAll(List.of(person("Mixed1", "Male")));
+        Person viaHibernate = personRepository.saveAndFlush(person("Mixed2", "Male"));
+        List<Person> viaUpsert = personRepository.upsertAll(List.of(person("Mixed3", "Male")));
+
+        assertNotEquals(viaHibernate.getId(), viaUpsert.get(0).getId());
+    }
+
+    private static Person person(String firstName, String gender) {
+        Person person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName("Import");
+        person.setAddress("Upsert Street");
+        person.setGender(gender);
+        person.setEnabled(true);
+        return person;
+    }
+}
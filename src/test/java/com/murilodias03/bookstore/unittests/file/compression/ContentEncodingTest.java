@@ -0,0 +1,58 @@
+package com.murilodias03.bookstore.unittests.file.compression;
+
+import com.murilodias03.bookstore.file.compression.ContentEncoding;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentEncodingTest {
+
+    @Test
+    void negotiatePrefersZstdOnATieAndHonoursQualityValues() {
+        assertEquals(Optional.of(ContentEncoding.ZSTD), ContentEncoding.negotiate("gzip, deflate, br, zstd"));
+        assertEquals(Optional.of(ContentEncoding.GZIP), ContentEncoding.negotiate("gzip;q=1.0, zstd;q=0.5"));
+        assertEquals(Optional.of(ContentEncoding.GZIP), ContentEncoding.negotiate("gzip"));
+        assertEquals(Optional.of(ContentEncoding.ZSTD), ContentEncoding.negotiate("*"));
+        assertEquals(Optional.of(ContentEncoding.GZIP), ContentEncoding.negotiate("*, zstd;q=0"));
+    }
+
+    @Test
+    void negotiateReturnsEmptyWhenNothingIsAcceptable() {
+        assertTrue(ContentEncoding.negotiate(null).isEmpty());
+        assertTrue(ContentEncoding.negotiate("identity").isEmpty());
+        assertTrue(ContentEncoding.negotiate("br, gzip;q=0").isEmpty());
+    }
+
+    @Test
+    void isCompressibleCoversTextualTypesOnly() {
+        assertTrue(ContentEncoding.isCompressible("application/json"));
+        assertTrue(ContentEncoding.isCompressible("application/hal+json"));
+        assertTrue(ContentEncoding.isCompressible("application/xml;charset=UTF-8"));
+        assertTrue(ContentEncoding.isCompressible("application/x-yaml"));
+        assertTrue(ContentEncoding.isCompressible("text/csv"));
+        assertFalse(ContentEncoding.isCompressible("application/pdf"));
+        assertFalse(ContentEncoding.isCompressible("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        assertFalse(ContentEncoding.isCompressible(null));
+    }
+
+    @Test
+    void compressedBytesRoundTrip() throws Exception {
+        byte[] original = "id,first_name,last_name\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out = encoding.compress(compressed)) {
+                out.write(original);
+            }
+
+            assertTrue(compressed.size() < original.length / 10, encoding.name());
+            assertArrayEquals(original, encoding.decompress(new ByteArrayInputStream(compressed.toByteArray())).readAllBytes());
+        }
+    }
+}
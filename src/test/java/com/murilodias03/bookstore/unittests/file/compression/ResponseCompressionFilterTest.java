@@ -0,0 +1,107 @@
+package com.murilodias03.bookstore.unittests.file.compression;
+
+import com.murilodias03.bookstore.file.compression.ContentEncoding;
+import com.murilodias03.bookstore.file.compression.ResponseCompressionFilter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCompressionFilterTest {
+
+    private static final String JSON = "[" + "{\"firstName\":\"Ayrton\",\"lastName\":\"Senna\"},".repeat(100) + "{}]";
+
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(1024);
+
+    @Test
+    void compressesLargeJsonBodiesInTheNegotiatedEncoding() throws Exception {
+        MockHttpServletResponse response = filter(request("gzip, zstd"), "application/json", JSON);
+
+        assertEquals("zstd", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertTrue(response.getContentAsByteArray().length < JSON.length());
+        assertEquals(JSON, new String(ContentEncoding.ZSTD.decompress(
+                new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void leavesSmallAndBinaryBodiesAlone() throws Exception {
+        MockHttpServletResponse small = filter(request("gzip"), "application/json", "{}");
+        assertNull(small.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{}", small.getContentAsString());
+        assertEquals(2, small.getContentLength());
+
+        MockHttpServletResponse pdf = filter(request("gzip"), "application/pdf", JSON);
+        assertNull(pdf.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(JSON, pdf.getContentAsString());
+    }
+
+    @Test
+    void passesThroughWhenTheClientDoesNotAcceptAnEncoding() throws Exception {
+        MockHttpServletResponse response = filter(request(null), "application/json", JSON);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.VARY));
+        assertEquals(JSON, response.getContentAsString());
+    }
+
+    @Test
+    void finishesTheCompressedBodyOnTheAsyncDispatchOfAStreamingExport() throws Exception {
+        MockHttpServletRequest request = request("gzip");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServletResponse[] wrapped = new HttpServletResponse[1];
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync();
+                resp.setContentType("text/csv");
+                wrapped[0] = resp;
+            }
+        }));
+
+        // What StreamingResponseBody does on its own thread while the request is suspended
+        wrapped[0].getOutputStream().write(JSON.getBytes(StandardCharsets.UTF_8));
+        wrapped[0].getOutputStream().flush();
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(JSON, new String(ContentEncoding.GZIP.decompress(
+                new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, String contentType, String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                resp.setContentType(contentType);
+                resp.setContentLength(bytes.length);
+                resp.getOutputStream().write(bytes);
+            }
+        }));
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/person/v1");
+        if (acceptEncoding != null) request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return request;
+    }
+}
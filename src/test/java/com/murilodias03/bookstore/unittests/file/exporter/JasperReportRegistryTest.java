@@ -0,0 +1,81 @@
+package com.murilodias03.bookstore.unittests.file.exporter;
+
+import com.murilodias03.bookstore.file.exporter.report.JasperReportRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sf.jasperreports.engine.DefaultJasperReportsContext;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JasperReportRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void ignoreMissingFonts() {
+        // The templates use Arial, which headless build machines usually lack
+        DefaultJasperReportsContext.getInstance().setProperty("net.sf.jasperreports.awt.ignore.missing.font", "true");
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void getLoadsEachReportOnce() {
+        var registry = new JasperReportRegistry(meterRegistry, false);
+
+        var first = registry.get("books");
+        var second = registry.get("books");
+
+        assertSame(first, second);
+        assertEquals("books", first.getName());
+        assertEquals(1, meterRegistry.get("reports.compile").tag("report", "books").timer().count());
+    }
+
+    @Test
+    void getWithHotReloadKeepsUnchangedTemplates() {
+        var registry = new JasperReportRegistry(meterRegistry, true);
+
+        assertSame(registry.get("people"), registry.get("people"));
+        assertEquals(1, meterRegistry.get("reports.compile").tag("report", "people").timer().count());
+    }
+
+    @Test
+    void getFailsForUnknownTemplates() {
+        var registry = new JasperReportRegistry(meterRegistry, false);
+
+        assertThrows(IllegalStateException.class, () -> registry.get("missing"));
+    }
+
+    @Test
+    void fillAndExportAreTimed() throws Exception {
+        var registry = new JasperReportRegistry(meterRegistry, false);
+
+        Map<String, ?> book = Map.of(
+                "id", 1L,
+                "author", "Some Author",
+                "launchdate", new Date(),
+                "price", new BigDecimal("100.0"),
+                "title", "Some Title");
+
+        var print = registry.fill("books", new HashMap<>(), new JRMapCollectionDataSource(List.of(book)));
+        var outputStream = new ByteArrayOutputStream();
+        registry.exportToPdf("books", print, outputStream);
+
+        assertTrue(outputStream.size() > 0);
+        assertEquals(1, meterRegistry.get("reports.fill").tag("report", "books").timer().count());
+        assertEquals(1, meterRegistry.get("reports.export").tag("report", "books").timer().count());
+    }
+}
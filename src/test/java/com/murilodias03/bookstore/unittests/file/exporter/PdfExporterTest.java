@@ -0,0 +1,116 @@
+package com.murilodias03.bookstore.unittests.file.exporter;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.file.exporter.impl.PdfExporter;
+import com.murilodias03.bookstore.file.exporter.report.JasperReportRegistry;
+import com.murilodias03.bookstore.unittests.mapper.mocks.MockPerson;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PdfExporterTest {
+
+    @Mock
+    JasperReportRegistry reports;
+
+    private PdfExporter exporter;
+    private MockPerson input;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new PdfExporter(null, reports, 10, 2, 2);
+        input = new MockPerson();
+    }
+
+    @AfterEach
+    void tearDown() {
+        exporter.shutdown();
+    }
+
+    @Test
+    void exportPeopleFillsChunksAndMergesTheirPagesInOrder() throws Exception {
+        when(reports.get("people")).thenReturn(peopleReport());
+        when(reports.fill(eq("people"), anyMap(), any())).thenAnswer(invocation -> {
+            var dataSource = (JRBeanCollectionDataSource) invocation.getArgument(2);
+            var firstId = ((List<?>) dataSource.getData()).stream()
+                    .map(PersonDTO.class::cast).findFirst().map(PersonDTO::getId).orElseThrow();
+            return printWithPage(firstId);
+        });
+        var people = IntStream.range(0, 50).mapToObj(input::mockDTO).toList();
+
+        exporter.exportPeople(people.stream(), new ByteArrayOutputStream());
+
+        ArgumentCaptor<Map<String, Object>> parameters = ArgumentCaptor.captor();
+        verify(reports, times(3)).fill(eq("people"), parameters.capture(), any());
+        assertEquals(1, parameters.getAllValues().stream().filter(p -> Boolean.TRUE.equals(p.get("SHOW_TITLE"))).count());
+        assertTrue(parameters.getAllValues().stream().allMatch(p -> p.get(JRParameter.REPORT_VIRTUALIZER) != null));
+
+        ArgumentCaptor<JasperPrint> merged = ArgumentCaptor.captor();
+        verify(reports).exportToPdf(eq("people"), merged.capture(), any());
+        var pages = merged.getValue().getPages();
+        assertEquals(3, pages.size());
+        // Chunks are rounded to whole pages: 19 rows fit under the title, 22 on every other page
+        var firstIds = List.of(0, 19, 41);
+        for (int i = 0; i < pages.size(); i++) {
+            var elements = pages.get(i).getElements();
+            assertEquals("chunk " + firstIds.get(i), ((JRPrintText) elements.get(0)).getFullText());
+            assertEquals("Page " + (i + 1), ((JRPrintText) elements.get(1)).getFullText());
+            assertEquals(" of 3", ((JRPrintText) elements.get(2)).getFullText());
+        }
+    }
+
+    @Test
+    void exportPeopleWithNoRowsStillFillsOneReport() throws Exception {
+        when(reports.get("people")).thenReturn(peopleReport());
+        when(reports.fill(eq("people"), anyMap(), any())).thenReturn(printWithPage(0L));
+
+        exporter.exportPeople(List.of());
+
+        verify(reports, times(1)).fill(eq("people"), anyMap(), any());
+        verify(reports).exportToPdf(eq("people"), any(), any());
+    }
+
+    private static JasperReport peopleReport() throws Exception {
+        return (JasperReport) JRLoader.loadObject(PdfExporterTest.class.getResource("/templates/people.jasper"));
+    }
+
+    private static JasperPrint printWithPage(Long firstId) {
+        var page = new JRBasePrintPage();
+        page.addElement(text(null, "chunk " + firstId));
+        page.addElement(text("pageNumber", "Page 1"));
+        page.addElement(text("pageCount", " of 1"));
+
+        var print = new JasperPrint();
+        print.addPage(page);
+        return print;
+    }
+
+    private static JRPrintText text(String key, String value) {
+        var text = new JRBasePrintText(null);
+        text.setKey(key);
+        text.setText(value);
+        return text;
+    }
+}
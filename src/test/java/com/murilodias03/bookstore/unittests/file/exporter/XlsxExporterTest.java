@@ -0,0 +1,63 @@
+package com.murilodias03.bookstore.unittests.file.exporter;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.file.exporter.impl.XlsxExporter;
+import com.murilodias03.bookstore.unittests.mapper.mocks.MockPerson;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxExporterTest {
+
+    private MockPerson input;
+    private XlsxExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        input = new MockPerson();
+        exporter = new XlsxExporter();
+    }
+
+    @Test
+    void exportPeopleStreamsEveryRowPastTheWindow() throws Exception {
+        Stream<PersonDTO> people = IntStream.range(0, 250).mapToObj(input::mockDTO);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exporter.exportPeople(people, outputStream);
+
+        try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("People");
+
+            assertEquals(250, sheet.getLastRowNum());
+            assertEquals("First Name", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertTrue(workbook.getFontAt(sheet.getRow(0).getCell(0).getCellStyle().getFontIndex()).getBold());
+            assertEquals(249, (long) sheet.getRow(250).getCell(0).getNumericCellValue());
+            assertEquals("First Name Test249", sheet.getRow(250).getCell(1).getStringCellValue());
+            assertEquals("No", sheet.getRow(250).getCell(5).getStringCellValue());
+        }
+    }
+
+    @Test
+    void exportPeopleSizesColumnsToTheLongestValue() throws Exception {
+        PersonDTO person = input.mockDTO(1);
+        person.setAddress("A".repeat(40));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exporter.exportPeople(Stream.of(person), outputStream);
+
+        try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("People");
+
+            assertEquals((40 + 2) * 256, sheet.getColumnWidth(3));
+            assertEquals(("Enabled".length() + 2) * 256, sheet.getColumnWidth(5));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.murilodias03.bookstore.unittests.file.importer;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.file.importer.impl.CsvImporter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImporterTest {
+
+    private final CsvImporter importer = new CsvImporter();
+
+    @Test
+    void importFileHandsOverFixedSizeChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 0; i < 7; i++) {
+            csv.append("First").append(i).append(",Last").append(i).append(",Street ").append(i).append(",Male\n");
+        }
+        List<List<PersonDTO>> chunks = new ArrayList<>();
+
+        importer.importFile(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), 3, chunks::add);
+
+        assertEquals(List.of(3, 3, 1), chunks.stream().map(List::size).toList());
+        PersonDTO last = chunks.get(2).get(0);
+        assertEquals("First6", last.getFirstName());
+        assertEquals("Last6", last.getLastName());
+        assertEquals("Street 6", last.getAddress());
+        assertTrue(last.getEnabled());
+    }
+
+    @Test
+    void importRowsReportsFileLinesAcrossEmptyLines() throws Exception {
+        String csv = "first_name,last_name,address,gender\nAda,Lovelace,London,Female\n\nAlan,Turing,Wilmslow,Male\n";
+        List<Long> rows = new ArrayList<>();
+
+        importer.importRows(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), 10, (people, chunkRows) -> rows.addAll(chunkRows));
+
+        assertEquals(List.of(2L, 4L), rows);
+    }
+
+    @Test
+    void importFileReadsUtf8WithByteOrderMark() throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        bytes.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        bytes.write("first_name,last_name,address,gender\nJúlio,Tesla,Ribeirão Preto - SP,Male\n".getBytes(StandardCharsets.UTF_8));
+
+        List<PersonDTO> people = importer.importFile(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(1, people.size());
+        assertEquals("Júlio", people.get(0).getFirstName());
+        assertEquals("Ribeirão Preto - SP", people.get(0).getAddress());
+    }
+
+    @Test
+    void importFileRejectsInvalidUtf8() {
+        byte[] latin1 = "first_name,last_name,address,gender\nJúlio,Tesla,Franca,Male\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertThrows(CharacterCodingException.class,
+                () -> importer.importFile(new ByteArrayInputStream(latin1), 10, chunk -> {}));
+    }
+}
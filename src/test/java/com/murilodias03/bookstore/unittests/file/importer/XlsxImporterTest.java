@@ -0,0 +1,67 @@
+package com.murilodias03.bookstore.unittests.file.importer;
+
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.file.importer.impl.XlsxImporter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxImporterTest {
+
+    private final XlsxImporter importer = new XlsxImporter();
+
+    @Test
+    void importFileStreamsRowsInChunksAndSkipsBlankRows() throws Exception {
+        List<List<PersonDTO>> chunks = new ArrayList<>();
+
+        importer.importFile(new ByteArrayInputStream(spreadsheet()), 2, chunks::add);
+
+        assertEquals(List.of(2, 2, 2), chunks.stream().map(List::size).toList());
+        PersonDTO first = chunks.get(0).get(0);
+        assertEquals("First1", first.getFirstName());
+        assertEquals("Last1", first.getLastName());
+        assertEquals("Street 1", first.getAddress());
+        assertEquals("Female", first.getGender());
+        assertTrue(first.getEnabled());
+        assertEquals("Júlio", chunks.get(2).get(1).getFirstName());
+        assertEquals("Ribeirão Preto - SP", chunks.get(2).get(1).getAddress());
+    }
+
+    @Test
+    void importRowsReportsOneBasedSheetRowsAcrossBlankRows() throws Exception {
+        List<Long> rows = new ArrayList<>();
+
+        importer.importRows(new ByteArrayInputStream(spreadsheet()), 2, (people, chunkRows) -> rows.addAll(chunkRows));
+
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 9L), rows);
+    }
+
+    private static byte[] spreadsheet() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            var sheet = workbook.createSheet("People");
+            fillRow(sheet.createRow(0), "first_name", "last_name", "address", "gender");
+            for (int i = 1; i <= 5; i++) {
+                fillRow(sheet.createRow(i), "First" + i, "Last" + i, "Street " + i, "Female");
+            }
+            sheet.createRow(6).createCell(1).setCellValue("no first name");
+            fillRow(sheet.createRow(8), "Júlio", "Tesla", "Ribeirão Preto - SP", "Male");
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    private static void fillRow(Row row, String... values) {
+        for (int i = 0; i < values.length; i++) {
+            row.createCell(i).setCellValue(values[i]);
+        }
+    }
+}
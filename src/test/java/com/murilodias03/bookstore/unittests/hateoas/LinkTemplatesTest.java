@@ -0,0 +1,87 @@
+package com.murilodias03.bookstore.unittests.hateoas;
+
+import com.murilodias03.bookstore.controllers.PersonController;
+import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.hateoas.LinkTemplates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkTemplatesTest {
+
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    private final LinkTemplates templates = new LinkTemplates(id -> {
+        resolutions.incrementAndGet();
+        return links(id);
+    });
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void expandsTheSameLinksAsLinkTo() {
+        bindRequest("api.bookstore.com", 443, "https");
+
+        for (long id : new long[]{1L, 42L, 1234567L}) {
+            PersonDTO dto = new PersonDTO();
+            templates.forCurrentRequest().addTo(dto, id);
+            assertEquals(render(links(id)), render(dto.getLinks().toList()));
+        }
+    }
+
+    @Test
+    void resolvesRoutesOncePerBaseUri() {
+        bindRequest("localhost", 8080, "http");
+        templates.forCurrentRequest().addTo(new PersonDTO(), 1L);
+        templates.forCurrentRequest().addTo(new PersonDTO(), 2L);
+        assertEquals(1, resolutions.get());
+
+        bindRequest("bookstore.com", 80, "http");
+        PersonDTO dto = new PersonDTO();
+        templates.forCurrentRequest().addTo(dto, 3L);
+
+        assertEquals(2, resolutions.get());
+        assertTrue(dto.getRequiredLink("self").getHref().startsWith("http://bookstore.com/person/3"));
+    }
+
+    @Test
+    void worksWithoutRequestContext() {
+        PersonDTO dto = new PersonDTO();
+        templates.forCurrentRequest().addTo(dto, 7L);
+        assertEquals(render(links(7L)), render(dto.getLinks().toList()));
+    }
+
+    private static List<Link> links(Long id) {
+        return List.of(
+                linkTo(methodOn(PersonController.class).findById(id)).withSelfRel().withType("GET"),
+                linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(PersonController.class).disablePerson(id)).withRel("disable").withType("PATCH"),
+                linkTo(methodOn(PersonController.class).delete(id)).withRel("delete").withType("DELETE")
+        );
+    }
+
+    private static List<String> render(List<Link> links) {
+        return links.stream().map(Link::toString).toList();
+    }
+
+    private static void bindRequest(String host, int port, String scheme) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName(host);
+        request.setServerPort(port);
+        request.setScheme(scheme);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -6,18 +6,24 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.List;
 
+import com.murilodias03.bookstore.data.dto.BookDTO;
 import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.data.dto.UploadFileResponseDTO;
+import com.murilodias03.bookstore.model.Book;
 import com.murilodias03.bookstore.model.Person;
+import com.murilodias03.bookstore.unittests.mapper.mocks.MockBook;
 import com.murilodias03.bookstore.unittests.mapper.mocks.MockPerson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 public class ObjectMapperTests {
     MockPerson inputObject;
+    MockBook inputBook;
 
     @BeforeEach
     public void setUp() {
         inputObject = new MockPerson();
+        inputBook = new MockBook();
     }
 
     @Test
@@ -95,4 +101,42 @@ public class ObjectMapperTests {
         assertEquals("Address Test12", outputTwelve.getAddress());
         assertEquals("Male", outputTwelve.getGender());
     }
+
+    @Test
+    public void parseBookEntityToDTOTest() {
+        Book entity = inputBook.mockEntity(3);
+        BookDTO output = parseObject(entity, BookDTO.class);
+        assertEquals(Long.valueOf(3L), output.getId());
+        assertEquals("Some Author3", output.getAuthor());
+        assertEquals("Some Title3", output.getTitle());
+        assertEquals(entity.getPrice(), output.getPrice());
+        assertEquals(entity.getLaunchDate(), output.getLaunchDate());
+    }
+
+    @Test
+    public void parseBookDTOToEntityTest() {
+        BookDTO dto = inputBook.mockDTO(5);
+        Book output = parseObject(dto, Book.class);
+        assertEquals(Long.valueOf(5L), output.getId());
+        assertEquals("Some Author5", output.getAuthor());
+        assertEquals("Some Title5", output.getTitle());
+        assertEquals(dto.getPrice(), output.getPrice());
+        assertEquals(dto.getLaunchDate(), output.getLaunchDate());
+    }
+
+    @Test
+    public void parseEntityWithBooksToDTOTest() {
+        Person entity = inputObject.mockEntity(1);
+        entity.setBooks(inputBook.mockEntityList());
+        PersonDTO output = parseObject(entity, PersonDTO.class);
+        assertEquals(14, output.getBooks().size());
+        assertEquals("Some Title0", output.getBooks().getFirst().getTitle());
+    }
+
+    @Test
+    public void parseUnregisteredTypesFallsBackToDozerTest() {
+        UploadFileResponseDTO origin = new UploadFileResponseDTO("file.csv", "/files/file.csv", "text/csv", 10L);
+        UploadFileResponseDTO output = parseObject(origin, UploadFileResponseDTO.class);
+        assertEquals(origin, output);
+    }
 }
\ No newline at end of file
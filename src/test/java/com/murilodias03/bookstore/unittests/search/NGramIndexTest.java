@@ -0,0 +1,67 @@
+package com.murilodias03.bookstore.unittests.search;
+
+import com.murilodias03.bookstore.search.NGramIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NGramIndexTest {
+
+    NGramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NGramIndex();
+        index.put(1L, "Fawnia", "Tutt");
+        index.put(2L, "Alessandro", "McFaul");
+        index.put(3L, "Cassandra", "O'Keefe");
+    }
+
+    @Test
+    void searchFindsSubstringsAcrossFields() {
+        assertEquals(List.of(2L, 3L), index.search("andr"));
+        assertEquals(List.of(1L), index.search("nia tu"));
+        assertEquals(List.of(1L), index.search("TUTT"));
+    }
+
+    @Test
+    void searchWithShortQueriesUsesPrefixGramsAndSortsByName() {
+        assertEquals(List.of(2L, 3L), index.search("sa"));
+        assertEquals(List.of(2L, 3L, 1L), index.search("a"));
+    }
+
+    @Test
+    void searchRequiresTheWholeTermNotOnlyItsGrams() {
+        index.put(4L, "andxxandr", "");
+        assertEquals(List.of(2L, 4L, 3L), index.search("andr"));
+        assertEquals(List.of(), index.search("andra x"));
+    }
+
+    @Test
+    void putSkipsNullFields() {
+        index.put(4L, "Ulla", null);
+        assertEquals(List.of(), index.search("null"));
+        assertEquals(List.of(), index.search("a n"));
+        assertEquals(List.of(4L), index.search("ulla"));
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsDocuments() {
+        index.put(1L, "Fiona", "Tutt");
+        assertEquals(List.of(), index.search("fawn"));
+        assertEquals(List.of(1L), index.search("fion"));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("tutt"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void searchWithBlankTermReturnsNothing() {
+        assertTrue(index.search("  ").isEmpty());
+        assertTrue(index.search(null).isEmpty());
+    }
+}
@@ -0,0 +1,166 @@
+package com.murilodias03.bookstore.unittests.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.murilodias03.bookstore.security.jwt.JwtKeyStore;
+import com.murilodias03.bookstore.security.jwt.JwtKeyStore.SigningAlgorithm;
+import com.murilodias03.bookstore.security.jwt.JwtTokenProvider;
+import com.murilodias03.bookstore.security.jwt.PrincipalCache;
+import com.murilodias03.bookstore.security.jwt.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtKeyStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<JwtKeyStore> keyStores = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyStores.forEach(JwtKeyStore::stop);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void signsWithTheKeyIdAndVerifiesRs256AndEs256() throws Exception {
+        for (SigningAlgorithm algorithm : List.of(SigningAlgorithm.RS256, SigningAlgorithm.ES256)) {
+            Path keys = Files.createDirectory(directory.resolve(algorithm.name()));
+            writeKeyPair(keys, "k1", algorithm, true);
+            JwtTokenProvider provider = provider(keyStore(keys, algorithm));
+
+            String token = provider.createAccessToken("leandro", List.of("ADMIN")).accessToken();
+
+            assertEquals(algorithm.name(), JWT.decode(token).getAlgorithm());
+            assertEquals("k1", JWT.decode(token).getKeyId());
+            assertEquals("leandro", provider.decodeToken(token).getSubject());
+        }
+    }
+
+    @Test
+    void rotatesToANewKeyOnceItHasBeenPublishedForAReloadInterval() throws Exception {
+        writeKeyPair(directory, "k1", SigningAlgorithm.RS256, true);
+        age(directory, "k1", 2);
+        JwtKeyStore keyStore = keyStore(directory, SigningAlgorithm.RS256);
+        JwtTokenProvider provider = provider(keyStore);
+        String oldToken = provider.createAccessToken("leandro", List.of("ADMIN")).accessToken();
+
+        // Just published: other replicas may not know it yet, so k1 keeps signing
+        writeKeyPair(directory, "k2", SigningAlgorithm.RS256, true);
+        keyStore.reload();
+        assertEquals("k1", keyStore.signingKey().kid());
+
+        age(directory, "k2", 1);
+        keyStore.reload();
+        String newToken = provider.createAccessToken("leandro", List.of("ADMIN")).accessToken();
+        assertEquals("k2", JWT.decode(newToken).getKeyId());
+        assertEquals("leandro", provider.decodeToken(oldToken).getSubject());
+
+        // Withdrawing k1 revokes what it signed
+        Files.delete(directory.resolve("k1-private.pem"));
+        Files.delete(directory.resolve("k1-public.pem"));
+        keyStore.reload();
+        assertThrows(SignatureVerificationException.class, () -> provider.decodeToken(oldToken));
+        assertEquals("leandro", provider.decodeToken(newToken).getSubject());
+    }
+
+    @Test
+    void replicasWithOnlyPublicKeysVerifyButCannotSign() throws Exception {
+        Path signer = Files.createDirectory(directory.resolve("signer"));
+        Path replica = Files.createDirectory(directory.resolve("replica"));
+        writeKeyPair(signer, "k1", SigningAlgorithm.ES256, true);
+        Files.copy(signer.resolve("k1-public.pem"), replica.resolve("k1-public.pem"));
+
+        String token = provider(keyStore(signer, SigningAlgorithm.ES256)).createAccessToken("leandro", List.of("ADMIN")).accessToken();
+        JwtTokenProvider replicaProvider = provider(keyStore(replica, SigningAlgorithm.ES256));
+
+        assertEquals("leandro", replicaProvider.decodeToken(token).getSubject());
+        assertThrows(IllegalStateException.class, () -> replicaProvider.createAccessToken("leandro", List.of("ADMIN")));
+    }
+
+    @Test
+    void rejectsTokensWithoutAKeyId() throws Exception {
+        KeyPair keyPair = writeKeyPair(directory, "k1", SigningAlgorithm.RS256, true);
+        JwtTokenProvider provider = provider(keyStore(directory, SigningAlgorithm.RS256));
+
+        String token = JWT.create().withSubject("leandro").withExpiresAt(Instant.now().plusSeconds(60))
+                .sign(Algorithm.RSA256(null, (RSAPrivateKey) keyPair.getPrivate()));
+
+        assertNull(JWT.decode(token).getKeyId());
+        assertThrows(SignatureVerificationException.class, () -> provider.decodeToken(token));
+    }
+
+    @Test
+    void startFailsWithoutVerificationKeys() {
+        JwtKeyStore keyStore = new JwtKeyStore(new VerifiedTokenCache(new SimpleMeterRegistry(), 0),
+                SigningAlgorithm.RS256, directory.toString(), 60, "");
+
+        assertThrows(IllegalStateException.class, keyStore::start);
+    }
+
+    private JwtKeyStore keyStore(Path keys, SigningAlgorithm algorithm) {
+        JwtKeyStore keyStore = new JwtKeyStore(new VerifiedTokenCache(new SimpleMeterRegistry(), 0),
+                algorithm, keys.toString(), 60, "");
+        keyStore.start();
+        keyStores.add(keyStore);
+        return keyStore;
+    }
+
+    private static JwtTokenProvider provider(JwtKeyStore keyStore) {
+        JwtTokenProvider provider = new JwtTokenProvider(mock(UserDetailsService.class), new PrincipalCache(0),
+                JwtTokenProvider.AuthenticationMode.CLAIMS, keyStore);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static KeyPair writeKeyPair(Path keys, String kid, SigningAlgorithm algorithm, boolean withPrivateKey) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm == SigningAlgorithm.RS256 ? "RSA" : "EC");
+        generator.initialize(algorithm == SigningAlgorithm.RS256 ? 2048 : 256);
+        KeyPair keyPair = generator.generateKeyPair();
+        writePem(keys.resolve(kid + "-public.pem"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+        if (withPrivateKey) writePem(keys.resolve(kid + "-private.pem"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        return keyPair;
+    }
+
+    private static void age(Path keys, String kid, int hours) throws Exception {
+        FileTime time = FileTime.from(Instant.now().minus(hours, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(keys.resolve(kid + "-private.pem"), time);
+        Files.setLastModifiedTime(keys.resolve(kid + "-public.pem"), time);
+    }
+
+    private static void writePem(Path file, String type, byte[] encoded) throws Exception {
+        Files.writeString(file, "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(encoded)
+                + "\n-----END " + type + "-----\n");
+    }
+}
@@ -0,0 +1,108 @@
+package com.murilodias03.bookstore.unittests.security;
+
+import com.murilodias03.bookstore.security.jwt.JwtKeyStore;
+import com.murilodias03.bookstore.security.jwt.JwtTokenProvider;
+import com.murilodias03.bookstore.security.jwt.JwtTokenProvider.AuthenticationMode;
+import com.murilodias03.bookstore.security.jwt.PrincipalCache;
+import com.murilodias03.bookstore.security.jwt.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtTokenProviderTest {
+
+    private static final int REQUESTS = 1000;
+
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("leandro"))
+                .thenReturn(User.withUsername("leandro").password("").authorities("ADMIN", "MANAGER").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void claimsModeAuthenticatesWithoutLoadingTheUser() {
+        JwtTokenProvider provider = provider(AuthenticationMode.CLAIMS, new PrincipalCache(0));
+        String token = provider.createAccessToken("leandro", List.of("ADMIN", "MANAGER")).accessToken();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            Authentication authentication = provider.getAuthentication(provider.decodeToken(token));
+            assertEquals("leandro", authentication.getName());
+            assertEquals(List.of("ADMIN", "MANAGER"), authorities(authentication));
+        }
+
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void claimsModeWithThePrincipalCacheLoadsEachUserOncePerTtl() {
+        PrincipalCache cache = new PrincipalCache(60);
+        JwtTokenProvider provider = provider(AuthenticationMode.CLAIMS, cache);
+        String token = provider.createAccessToken("leandro", List.of("ADMIN")).accessToken();
+
+        for (int i = 0; i < REQUESTS; i++) provider.getAuthentication(provider.decodeToken(token));
+        verify(userDetailsService, times(1)).loadUserByUsername("leandro");
+
+        // A disabled user is rejected as soon as the cache entry is invalidated
+        when(userDetailsService.loadUserByUsername("leandro"))
+                .thenReturn(User.withUsername("leandro").password("").authorities("ADMIN").disabled(true).build());
+        cache.invalidate("leandro");
+        assertNull(provider.getAuthentication(provider.decodeToken(token)));
+    }
+
+    @Test
+    void databaseModeLoadsTheUserOnEveryRequest() {
+        JwtTokenProvider provider = provider(AuthenticationMode.DATABASE, new PrincipalCache(0));
+        String token = provider.createAccessToken("leandro", List.of("ADMIN")).accessToken();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals(List.of("ADMIN", "MANAGER"), authorities(provider.getAuthentication(provider.decodeToken(token))));
+        }
+
+        verify(userDetailsService, times(REQUESTS)).loadUserByUsername("leandro");
+    }
+
+    @Test
+    void unsetModeFallsBackToTheDatabaseWhenThePrincipalCacheIsOff() {
+        JwtTokenProvider provider = provider(null, new PrincipalCache(0));
+        String token = provider.createAccessToken("leandro", List.of("ADMIN")).accessToken();
+
+        when(userDetailsService.loadUserByUsername("leandro"))
+                .thenReturn(User.withUsername("leandro").password("").authorities("ADMIN").disabled(true).build());
+        assertNull(provider.getAuthentication(provider.decodeToken(token)));
+    }
+
+    private JwtTokenProvider provider(AuthenticationMode mode, PrincipalCache cache) {
+        JwtKeyStore keyStore = new JwtKeyStore(new VerifiedTokenCache(new SimpleMeterRegistry(), 0),
+                JwtKeyStore.SigningAlgorithm.HS256, "", 0, "");
+        JwtTokenProvider provider = new JwtTokenProvider(userDetailsService, cache, mode, keyStore);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static List<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.murilodias03.bookstore.unittests.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.murilodias03.bookstore.security.jwt.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256("secret");
+
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicInteger verifications = new AtomicInteger();
+    private final Function<String, DecodedJWT> verifier = token -> {
+        verifications.incrementAndGet();
+        return JWT.require(ALGORITHM).acceptExpiresAt(3600).build().verify(token);
+    };
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void getVerifiesATokenOnceAndCountsHits() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, 10);
+        String token = token("leandro", 60_000);
+
+        for (int i = 0; i < 100; i++) assertEquals("leandro", cache.get(token, verifier).getSubject());
+
+        assertEquals(1, verifications.get());
+        assertEquals(99, requests("hit"));
+        assertEquals(1, requests("miss"));
+        assertEquals(1, meterRegistry.get("security.jwt.token.cache.size").gauge().value());
+    }
+
+    @Test
+    void getNeverCachesExpiredOrInvalidTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, 10);
+        String expired = token("leandro", -1_000);
+
+        cache.get(expired, verifier);
+        cache.get(expired, verifier);
+        assertThrows(JWTVerificationException.class, () -> cache.get(expired + "x", verifier));
+        assertThrows(JWTVerificationException.class, () -> cache.get(expired + "x", verifier));
+
+        assertEquals(4, verifications.get());
+        assertEquals(0, requests("hit"));
+    }
+
+    @Test
+    void getStaysWithinTheSizeLimit() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, 5);
+
+        for (int i = 0; i < 20; i++) cache.get(token("user" + i, 60_000), verifier);
+
+        assertTrue(meterRegistry.get("security.jwt.token.cache.size").gauge().value() <= 5);
+        assertEquals(15, meterRegistry.get("security.jwt.token.cache.evictions").counter().count());
+    }
+
+    @Test
+    void getBypassesTheCacheWhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(meterRegistry, 0);
+        String token = token("leandro", 60_000);
+
+        cache.get(token, verifier);
+        cache.get(token, verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("security.jwt.token.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static String token(String subject, long expiresInMillis) {
+        return JWT.create()
+                .withSubject(subject)
+                .withExpiresAt(new Date(System.currentTimeMillis() + expiresInMillis))
+                .sign(ALGORITHM);
+    }
+}
@@ -0,0 +1,102 @@
+package com.murilodias03.bookstore.unittests.services;
+
+import com.murilodias03.bookstore.data.dto.security.AccountCredentialsDTO;
+import com.murilodias03.bookstore.data.dto.security.TokenDTO;
+import com.murilodias03.bookstore.exceptions.TooManyRequestsException;
+import com.murilodias03.bookstore.repositories.UserRepository;
+import com.murilodias03.bookstore.security.jwt.JwtTokenProvider;
+import com.murilodias03.bookstore.services.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuthServiceTest {
+
+    private static final AccountCredentialsDTO CREDENTIALS = new AccountCredentialsDTO("leandro", "admin123");
+
+    private AuthenticationManager authenticationManager;
+    private JwtTokenProvider tokenProvider;
+    private SimpleMeterRegistry meterRegistry;
+    private AuthService service;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        authenticationManager = mock(AuthenticationManager.class);
+        tokenProvider = mock(JwtTokenProvider.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new AuthService(authenticationManager, tokenProvider, mock(UserRepository.class), meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void singInChecksThePasswordOffTheCallerThreadAndIssuesATokenForItsAuthorities() throws Exception {
+        String[] thread = new String[1];
+        boolean[] requestVisible = new boolean[1];
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            thread[0] = Thread.currentThread().getName();
+            requestVisible[0] = RequestContextHolder.getRequestAttributes() != null;
+            return new UsernamePasswordAuthenticationToken("leandro", null, AuthorityUtils.createAuthorityList("ADMIN", "MANAGER"));
+        });
+        TokenDTO token = new TokenDTO("leandro", true, new Date(), new Date(), "access", "refresh");
+        when(tokenProvider.createAccessToken("leandro", List.of("ADMIN", "MANAGER"))).thenReturn(token);
+
+        assertEquals(token, service.singIn(CREDENTIALS).get(5, TimeUnit.SECONDS).getBody());
+        assertTrue(thread[0].startsWith("signin-"));
+        assertTrue(requestVisible[0]);
+    }
+
+    @Test
+    void singInRejectsRightAwayWhenThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new UsernamePasswordAuthenticationToken("leandro", null, List.of());
+        });
+
+        var running = service.singIn(CREDENTIALS);
+        started.await(5, TimeUnit.SECONDS);
+        var queued = service.singIn(CREDENTIALS);
+
+        assertThrows(TooManyRequestsException.class, () -> service.singIn(CREDENTIALS));
+        assertEquals(1, meterRegistry.get("auth.signin.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("executor.queued").tag("name", "auth.signin").gauge().value());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void singInCompletesExceptionallyForBadCredentials() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        CompletionException e = assertThrows(CompletionException.class, () -> service.singIn(CREDENTIALS).join());
+        assertInstanceOf(BadCredentialsException.class, e.getCause());
+    }
+}
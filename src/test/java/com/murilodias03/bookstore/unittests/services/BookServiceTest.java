@@ -4,6 +4,7 @@ import com.murilodias03.bookstore.data.dto.BookDTO;
 import com.murilodias03.bookstore.exceptions.RequeriedObjectsIsNullException;
 import com.murilodias03.bookstore.model.Book;
 import com.murilodias03.bookstore.repositories.BookRepository;
+import com.murilodias03.bookstore.search.CatalogSearchIndex;
 import com.murilodias03.bookstore.services.BookService;
 import com.murilodias03.bookstore.unittests.mapper.mocks.MockBook;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +34,9 @@ class BookServiceTest {
     @Mock
     BookRepository repository;
 
+    @Mock
+    CatalogSearchIndex searchIndex;
+
     @BeforeEach
     void setUp() {
         input = new MockBook();
@@ -239,6 +243,7 @@ class BookServiceTest {
         service.delete(1L);
         verify(repository, times(1)).findById(anyLong());
         verify(repository, times(1)).delete(any(Book.class));
+        verify(searchIndex, times(1)).removeBook(1L);
         verifyNoMoreInteractions(repository);
     }
 
@@ -0,0 +1,128 @@
+package com.murilodias03.bookstore.unittests.services;
+
+import com.murilodias03.bookstore.config.FileStorageConfig;
+import com.murilodias03.bookstore.exceptions.BadRequestException;
+import com.murilodias03.bookstore.exceptions.FileStorageException;
+import com.murilodias03.bookstore.exceptions.FileTooLargeException;
+import com.murilodias03.bookstore.exceptions.ResourceNotFoundException;
+import com.murilodias03.bookstore.services.ChunkedUploadService;
+import com.murilodias03.bookstore.services.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChunkedUploadServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private FileStorageService fileStorageService;
+    private ChunkedUploadService service;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageConfig config = new FileStorageConfig();
+        config.setUpload_dir(directory.toString());
+        fileStorageService = mock(FileStorageService.class);
+        service = new ChunkedUploadService(config, fileStorageService, 8, 100, 24);
+    }
+
+    @Test
+    void completeAssemblesPartsSentOutOfOrderAndInParallel() throws Exception {
+        AtomicReference<String> assembled = new AtomicReference<>();
+        when(fileStorageService.store(any(InputStream.class), eq("report.csv"))).thenAnswer(invocation -> {
+            assembled.set(new String(invocation.<InputStream>getArgument(0).readAllBytes(), StandardCharsets.UTF_8));
+            return new FileStorageService.StoredFile("report.csv", 20, "hash");
+        });
+        var session = service.initiate("report.csv");
+        List<String> chunks = List.of("first,", "second,", "third,", "4");
+
+        IntStream.of(3, 1, 4, 2).parallel().forEach(part ->
+                service.uploadPart(session.getId(), part, input(chunks.get(part - 1))));
+        var status = service.findById(session.getId());
+        var stored = service.complete(session.getId());
+
+        assertEquals(List.of(1, 2, 3, 4), status.getParts().stream().map(part -> part.getPartNumber()).toList());
+        assertEquals("first,second,third,4", assembled.get());
+        assertEquals("report.csv", stored.fileName());
+        assertThrows(ResourceNotFoundException.class, () -> service.findById(session.getId()));
+        try (var leftovers = Files.list(directory.resolve(".uploads"))) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    @Test
+    void uploadPartReplacesARetriedPart() {
+        var session = service.initiate("retry.bin");
+
+        service.uploadPart(session.getId(), 1, input("broken"));
+        var part = service.uploadPart(session.getId(), 1, input("fixed"));
+
+        assertEquals(5, part.getSize());
+        assertEquals(List.of(5L), service.findById(session.getId()).getParts().stream().map(p -> p.getSize()).toList());
+    }
+
+    @Test
+    void completeKeepsTheSessionWhenAPartIsMissing() {
+        var session = service.initiate("gap.bin");
+        service.uploadPart(session.getId(), 1, input("a"));
+        service.uploadPart(session.getId(), 3, input("c"));
+
+        var error = assertThrows(BadRequestException.class, () -> service.complete(session.getId()));
+
+        assertEquals("Part 2 is missing!", error.getMessage());
+        service.uploadPart(session.getId(), 2, input("b"));
+        assertEquals(3, service.findById(session.getId()).getParts().size());
+        verifyNoInteractions(fileStorageService);
+    }
+
+    @Test
+    void uploadPartRejectsOversizedPartsAndUnknownSessions() {
+        var session = service.initiate("big.bin");
+
+        assertThrows(FileTooLargeException.class, () -> service.uploadPart(session.getId(), 1, input("123456789")));
+        assertTrue(service.findById(session.getId()).getParts().isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> service.uploadPart("../../etc", 1, input("x")));
+        assertThrows(BadRequestException.class, () -> service.uploadPart(session.getId(), 0, input("x")));
+    }
+
+    @Test
+    void initiateRejectsAbsoluteFileNames() {
+        assertThrows(FileStorageException.class, () -> service.initiate("/etc/passwd"));
+        verifyNoInteractions(fileStorageService);
+    }
+
+    @Test
+    void initiateRemovesOnlyAbandonedAssemblies() throws Exception {
+        Path assembling = Files.createDirectories(directory.resolve(".uploads").resolve(UUID.randomUUID() + ".assembling"));
+        Path abandoned = Files.createDirectories(directory.resolve(".uploads").resolve(UUID.randomUUID() + ".assembling"));
+        Files.setLastModifiedTime(abandoned, FileTime.fromMillis(0));
+        Path expired = Files.createDirectories(directory.resolve(".uploads").resolve(UUID.randomUUID().toString()));
+        Files.setLastModifiedTime(expired, FileTime.fromMillis(0));
+
+        service.initiate("next.bin");
+
+        assertTrue(Files.isDirectory(assembling));
+        assertFalse(Files.exists(abandoned));
+        assertFalse(Files.exists(expired));
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,213 @@
+package com.murilodias03.bookstore.unittests.services;
+
+import com.murilodias03.bookstore.file.compression.ContentEncoding;
+import com.murilodias03.bookstore.services.FileBlobStore;
+import com.murilodias03.bookstore.services.FileDownloadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloadServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final String SHA256 = "0e4b1c8d2e7f3a6b9c0d1e2f3a4b5c6d7e8f9a0b1c2d3e4f5a6b7c8d9e0f1a2b";
+    private static final long UPDATED_AT = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private FileDownloadService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(directory.resolve("report.txt"), CONTENT, StandardCharsets.UTF_8);
+        service = new FileDownloadService(1024, 16);
+    }
+
+    @Test
+    void sendWritesTheWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = download(new MockHttpServletRequest("GET", "/files/downloadFile/report.txt"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(20, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals("report.txt", ContentDisposition.parse(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).getFilename());
+    }
+
+    @Test
+    void sendAnswersNotModifiedForAMatchingETag() throws Exception {
+        String eTag = download(new MockHttpServletRequest("GET", "/")).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void sendServesASingleRangeAsPartialContent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("56789", response.getContentAsString());
+        assertEquals("bytes 5-9/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        assertEquals("hij", download(request).getContentAsString());
+    }
+
+    @Test
+    void sendRejectsRangesBeyondTheEndOfTheFile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=50-");
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void sendIgnoresTheRangeWhenIfRangeIsStale() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void sendHandsLargeBodiesToTheConnectorWhenSendfileIsSupported() throws Exception {
+        Files.write(file, new byte[4096]);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-");
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(100L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(4096L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(3996, response.getContentLengthLong());
+    }
+
+    @Test
+    void sendCompressesCompressibleFilesForClientsThatAcceptIt() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = download(request);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertTrue(response.getHeader(HttpHeaders.ETAG).endsWith("-gzip\""));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(CONTENT, decompress(ContentEncoding.GZIP, response.getContentAsByteArray()));
+    }
+
+    @Test
+    void sendServesStoredCompressedBytesAsIsWhenTheEncodingIsAccepted() throws Exception {
+        Path compressed = compressedCopy(ContentEncoding.ZSTD);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd");
+        MockHttpServletResponse response = download(stored(compressed, 20, ContentEncoding.ZSTD), request);
+
+        assertEquals("zstd", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(Files.size(compressed), response.getContentLengthLong());
+        assertArrayEquals(Files.readAllBytes(compressed), response.getContentAsByteArray());
+    }
+
+    @Test
+    void sendDecompressesStoredFilesForRangesAndOtherClients() throws Exception {
+        Path compressed = compressedCopy(ContentEncoding.GZIP);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        MockHttpServletResponse response = download(stored(compressed, 20, ContentEncoding.GZIP), request);
+
+        assertEquals(206, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("bytes 5-9/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("56789", response.getContentAsString());
+
+        response = download(stored(compressed, 20, ContentEncoding.GZIP),
+                new MockHttpServletRequest("GET", "/"));
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(20, response.getContentLengthLong());
+    }
+
+    @Test
+    void sendEncodesFileNamesThatAreNotPlainAscii() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(stored(file, Files.size(file), null), "relatório \"final\".txt", "text/plain",
+                new MockHttpServletRequest("GET", "/files/downloadFile/report.txt"), response);
+
+        var disposition = ContentDisposition.parse(response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("attachment", disposition.getType());
+        assertEquals("relatório \"final\".txt", disposition.getFilename());
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("filename*=UTF-8''relat%C3%B3rio"));
+    }
+
+    @Test
+    void sendTakesValidatorsFromTheMetadataInsteadOfTheSharedBlobFile() throws Exception {
+        MockHttpServletResponse response = download(new MockHttpServletRequest("GET", "/"));
+
+        assertEquals("\"" + SHA256 + "\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(UPDATED_AT, response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+
+        // The blob file is older than the name now pointing at it, so its mtime must not satisfy If-Modified-Since
+        Files.setLastModifiedTime(file, FileTime.fromMillis(UPDATED_AT - 86_400_000L));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, UPDATED_AT - 3_600_000L);
+        assertEquals(200, download(request).getStatus());
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        return download(stored(file, Files.size(file), null), request);
+    }
+
+    private MockHttpServletResponse download(FileBlobStore.StoredBlob stored, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(stored, "report.txt", "text/plain", request, response);
+        return response;
+    }
+
+    private static FileBlobStore.StoredBlob stored(Path path, long size, ContentEncoding encoding) {
+        return new FileBlobStore.StoredBlob(path, size, encoding, SHA256, UPDATED_AT);
+    }
+
+    private Path compressedCopy(ContentEncoding encoding) throws Exception {
+        Path compressed = directory.resolve("report" + encoding.getFileSuffix());
+        try (OutputStream out = encoding.compress(Files.newOutputStream(compressed))) {
+            Files.copy(file, out);
+        }
+        return compressed;
+    }
+
+    private static String decompress(ContentEncoding encoding, byte[] body) throws Exception {
+        return new String(encoding.decompress(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
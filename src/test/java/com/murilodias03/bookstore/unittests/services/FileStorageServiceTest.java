@@ -0,0 +1,258 @@
+package com.murilodias03.bookstore.unittests.services;
+
+import com.murilodias03.bookstore.config.FileStorageConfig;
+import com.murilodias03.bookstore.exceptions.FileStorageException;
+import com.murilodias03.bookstore.exceptions.FileTooLargeException;
+import com.murilodias03.bookstore.file.compression.ContentEncoding;
+import com.murilodias03.bookstore.model.FileMetadata;
+import com.murilodias03.bookstore.repositories.FileBlobRepository;
+import com.murilodias03.bookstore.repositories.FileMetadataRepository;
+import com.murilodias03.bookstore.services.FileBlobStore;
+import com.murilodias03.bookstore.services.FileStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FileStorageServiceTest {
+
+    // SHA-256 of "hello"
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path directory;
+
+    private FileStorageService service;
+    private FileBlobRepository blobRepository;
+    private TestTransactionManager transactionManager;
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        service = newService("none");
+    }
+
+    private FileStorageService newService(String compression) {
+        FileStorageConfig config = new FileStorageConfig();
+        config.setUpload_dir(directory.toString());
+
+        blobRepository = mock(FileBlobRepository.class);
+        FileMetadataRepository metadataRepository = mock(FileMetadataRepository.class);
+        when(metadataRepository.findSha256ByName(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(names.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> {
+            names.put(invocation.getArgument(0), invocation.getArgument(1));
+            return sizes.put(invocation.getArgument(0), invocation.getArgument(2));
+        }).when(metadataRepository).upsert(anyString(), anyString(), anyLong());
+        when(metadataRepository.findById(anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            if (!names.containsKey(name)) return Optional.empty();
+            FileMetadata metadata = new FileMetadata();
+            metadata.setName(name);
+            metadata.setSha256(names.get(name));
+            metadata.setSize(sizes.get(name));
+            metadata.setUpdatedAt(Instant.now());
+            return Optional.of(metadata);
+        });
+
+        transactionManager = new TestTransactionManager();
+        FileBlobStore blobStore = new FileBlobStore(config, blobRepository, metadataRepository,
+                transactionManager, compression);
+        return new FileStorageService(config, blobStore, 16, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void storeStreamsTheBodyAndComputesItsChecksum() throws Exception {
+        var stored = service.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "hello.txt");
+
+        assertEquals("hello.txt", stored.fileName());
+        assertEquals(5, stored.size());
+        assertEquals(HELLO_SHA256, stored.checksum());
+        assertEquals("hello", Files.readString(service.loadFile("hello.txt").path()));
+        assertEquals(directory.resolve("blobs/2c/f2/" + HELLO_SHA256), service.loadFile("hello.txt").path());
+        assertOnlyStoredFilesRemain("blobs");
+    }
+
+    @Test
+    void storeKeepsOneBlobForIdenticalContentUnderDifferentNames() throws Exception {
+        service.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "a.txt");
+        service.store(new MockMultipartFile("file", "b.txt", "text/plain", "hello".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(service.loadFile("a.txt").path(), service.loadFile("b.txt").path());
+        verify(blobRepository, times(2)).acquire(HELLO_SHA256, 5);
+        try (Stream<Path> files = Files.walk(directory.resolve("blobs"))) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void storeReleasesTheBlobANameUsedToPointAt() {
+        service.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "a.txt");
+        when(blobRepository.deleteIfUnreferenced(HELLO_SHA256)).thenReturn(1);
+        service.store(new ByteArrayInputStream("bye".getBytes(StandardCharsets.UTF_8)), "a.txt");
+
+        verify(blobRepository).release(HELLO_SHA256);
+        assertFalse(Files.exists(directory.resolve("blobs/2c/f2/" + HELLO_SHA256)));
+    }
+
+    @Test
+    void storeKeepsTheReleasedBlobWhenTheTransactionDoesNotCommit() {
+        service.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "a.txt");
+        when(blobRepository.deleteIfUnreferenced(HELLO_SHA256)).thenReturn(1);
+        transactionManager.failCommit = true;
+
+        assertThrows(FileStorageException.class,
+                () -> service.store(new ByteArrayInputStream("bye".getBytes(StandardCharsets.UTF_8)), "a.txt"));
+
+        assertTrue(Files.exists(directory.resolve("blobs/2c/f2/" + HELLO_SHA256)));
+    }
+
+    @Test
+    void storeKeepsABlobThatWasAcquiredAgainBeforeTheCleanup() {
+        service.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "a.txt");
+        when(blobRepository.deleteIfUnreferenced(HELLO_SHA256)).thenReturn(1);
+        when(blobRepository.existsById(HELLO_SHA256)).thenReturn(true);
+
+        service.store(new ByteArrayInputStream("bye".getBytes(StandardCharsets.UTF_8)), "a.txt");
+
+        assertTrue(Files.exists(directory.resolve("blobs/2c/f2/" + HELLO_SHA256)));
+    }
+
+    @Test
+    void loadFallsBackToFilesStoredUnderTheirOwnName() throws Exception {
+        Files.writeString(directory.resolve("legacy.txt"), "old");
+
+        assertEquals(directory.resolve("legacy.txt"), service.loadFile("legacy.txt").path());
+        assertEquals("old", service.loadFileAsResource("legacy.txt").getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void storeCompressesBlobsWhenConfiguredAndDecompressesOnRead() throws Exception {
+        service.shutdown();
+        service = newService("zstd");
+        service.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "hello.txt");
+        service.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "hello.png");
+
+        var stored = service.loadFile("hello.txt");
+        assertEquals(directory.resolve("blobs/2c/f2/" + HELLO_SHA256 + ".zst"), stored.path());
+        assertEquals(ContentEncoding.ZSTD, stored.encoding());
+        assertEquals(5, stored.size());
+        assertEquals("hello", service.loadFileAsResource("hello.txt").getContentAsString(StandardCharsets.UTF_8));
+        // Same content, so the already-compressed extension reuses the existing blob
+        assertEquals(stored.path(), service.loadFile("hello.png").path());
+        assertOnlyStoredFilesRemain("blobs");
+    }
+
+    @Test
+    void storeSkipsCompressionForAlreadyCompressedFormats() {
+        service.shutdown();
+        service = newService("gzip");
+        service.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "photo.jpg");
+
+        assertNull(service.loadFile("photo.jpg").encoding());
+        assertEquals(directory.resolve("blobs/2c/f2/" + HELLO_SHA256), service.loadFile("photo.jpg").path());
+    }
+
+    @Test
+    void storeRejectsBodiesOverTheLimitWithoutLeavingTemporaryFiles() throws Exception {
+        assertThrows(FileTooLargeException.class,
+                () -> service.store(new ByteArrayInputStream(new byte[17]), "big.bin"));
+
+        assertOnlyStoredFilesRemain();
+    }
+
+    @Test
+    void storeRejectsPathTraversal() {
+        assertThrows(FileStorageException.class,
+                () -> service.store(new ByteArrayInputStream(new byte[1]), "../escape.txt"));
+    }
+
+    @Test
+    void storeAndDeleteRejectAbsoluteNamesOutsideTheUploadDirectory() throws Exception {
+        Path outside = Files.writeString(Files.createTempFile("outside", ".txt"), "keep");
+        try {
+            assertThrows(FileStorageException.class,
+                    () -> service.store(new ByteArrayInputStream(new byte[1]), outside.toString()));
+            assertThrows(FileStorageException.class, () -> service.deleteFile(outside.toString()));
+            assertEquals("keep", Files.readString(outside));
+        } finally {
+            Files.deleteIfExists(outside);
+        }
+    }
+
+    @Test
+    void storeAllKeepsTheOrderOfTheParts() throws Exception {
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            files.add(new MockMultipartFile("files", "file" + i + ".txt", "text/plain", ("content " + i).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        var stored = service.storeAll(files);
+
+        assertEquals(10, stored.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("file" + i + ".txt", stored.get(i).fileName());
+            assertEquals("content " + i, Files.readString(service.loadFile("file" + i + ".txt").path()));
+        }
+        assertEquals(HELLO_SHA256, service.store(new MockMultipartFile("file", "hello.txt", "text/plain",
+                "hello".getBytes(StandardCharsets.UTF_8))).checksum());
+    }
+
+    private void assertOnlyStoredFilesRemain(String... names) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(names), files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    // Runs transaction synchronizations like a real manager, with a switch to make commits fail
+    private static class TestTransactionManager extends AbstractPlatformTransactionManager {
+
+        volatile boolean failCommit;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            if (failCommit) throw new TransactionSystemException("Commit failed");
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
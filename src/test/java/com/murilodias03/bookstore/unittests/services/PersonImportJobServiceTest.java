@@ -0,0 +1,119 @@
+package com.murilodias03.bookstore.unittests.services;
+
+import com.murilodias03.bookstore.data.dto.ImportJobDTO;
+import com.murilodias03.bookstore.data.dto.ImportRowErrorDTO;
+import com.murilodias03.bookstore.exceptions.BadRequestException;
+import com.murilodias03.bookstore.exceptions.ResourceNotFoundException;
+import com.murilodias03.bookstore.file.importer.factory.FileImporterFactory;
+import com.murilodias03.bookstore.file.importer.contract.FileImporter;
+import com.murilodias03.bookstore.file.importer.impl.CsvImporter;
+import com.murilodias03.bookstore.model.Person;
+import com.murilodias03.bookstore.search.CatalogSearchIndex;
+import com.murilodias03.bookstore.services.FileStorageService;
+import com.murilodias03.bookstore.services.PersonImportJobService;
+import com.murilodias03.bookstore.services.PersonImportPipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonImportJobServiceTest {
+
+    private static final String CSV = """
+            first_name,last_name,address,gender
+            Ana,Silva,Rua A,Female
+            Bruno,Souza,Rua B,Male
+            Carla,Lima,Rua C,Female
+            """;
+
+    @Mock
+    FileStorageService fileStorageService;
+
+    @Mock
+    FileImporterFactory fileImporter;
+
+    @Mock
+    PersonImportPipeline importPipeline;
+
+    @Mock
+    CatalogSearchIndex searchIndex;
+
+    private PersonImportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PersonImportJobService(fileStorageService, fileImporter, importPipeline, searchIndex, 1, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void submitImportsInTheBackgroundAndReportsRowErrors() throws Exception {
+        var file = new MockMultipartFile("file", "people.csv", "text/csv", CSV.getBytes(StandardCharsets.UTF_8));
+        FileImporter importer = new CsvImporter();
+        when(fileImporter.getImporter("people.csv")).thenReturn(importer);
+        when(fileStorageService.storeFile(eq(file), startsWith("import-"))).thenReturn("stored.csv");
+        when(fileStorageService.loadFileAsResource("stored.csv")).thenReturn(new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8)));
+        when(importPipeline.run(eq(importer), any(), eq(true), any())).thenAnswer(invocation -> {
+            PersonImportPipeline.Listener listener = invocation.getArgument(3);
+            listener.chunkSaved(2, List.of(new Person()));
+            listener.rowFailed(2, "duplicate key");
+            listener.chunkSaved(1, List.of(new Person()));
+            return 3L;
+        });
+
+        ImportJobDTO submitted = service.submit(file, true);
+        assertNotNull(submitted.getId());
+        assertEquals("people.csv", submitted.getFileName());
+
+        ImportJobDTO job = awaitFinished(submitted.getId());
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(3, job.getRowsProcessed());
+        assertEquals(2, job.getRowsImported());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(List.of(new ImportRowErrorDTO(2, "duplicate key")), job.getErrors());
+        assertNotNull(job.getFinishedAt());
+        verify(searchIndex, times(2)).indexPerson(any());
+        verify(fileStorageService).deleteFile("stored.csv");
+    }
+
+    @Test
+    void submitRejectsUnsupportedFiles() throws Exception {
+        var file = new MockMultipartFile("file", "people.txt", "text/plain", "x".getBytes(StandardCharsets.UTF_8));
+        when(fileImporter.getImporter("people.txt")).thenThrow(new BadRequestException("Invalid file format!"));
+
+        assertThrows(BadRequestException.class, () -> service.submit(file, false));
+        verifyNoInteractions(fileStorageService);
+    }
+
+    @Test
+    void findByIdFailsForUnknownJobs() {
+        assertThrows(ResourceNotFoundException.class, () -> service.findById("missing"));
+    }
+
+    private ImportJobDTO awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ImportJobDTO job = service.findById(id);
+            if (job.getFinishedAt() != null) return job;
+            Thread.sleep(50);
+        }
+        fail("Import job did not finish in time");
+        return null;
+    }
+}
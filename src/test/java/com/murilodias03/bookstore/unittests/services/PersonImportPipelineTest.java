@@ -0,0 +1,154 @@
+package com.murilodias03.bookstore.unittests.services;
+
+import com.murilodias03.bookstore.exceptions.BadRequestException;
+import com.murilodias03.bookstore.file.importer.impl.CsvImporter;
+import com.murilodias03.bookstore.model.Person;
+import com.murilodias03.bookstore.services.PersonImportPipeline;
+import com.murilodias03.bookstore.services.PersonImportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Timeout(10)
+class PersonImportPipelineTest {
+
+    @Mock
+    PersonImportService personImportService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PersonImportPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new PersonImportPipeline(personImportService, meterRegistry, 3, 1);
+        when(personImportService.getChunkSize()).thenReturn(3);
+    }
+
+    @Test
+    void runValidatesMapsAndWritesEveryChunk() throws Exception {
+        when(personImportService.savePeopleOrRows(anyList(), anyList(), anyBoolean(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        StringBuilder csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 1; i <= 20; i++) {
+            String gender = i == 5 ? "Unknown" : "Male";
+            String lastName = i == 12 ? "" : "Last" + i;
+            csv.append("First").append(i).append(',').append(lastName).append(",Street ").append(i).append(',').append(gender).append('\n');
+        }
+        List<Person> saved = Collections.synchronizedList(new ArrayList<>());
+        Map<Long, String> errors = new TreeMap<>();
+
+        long processed = pipeline.run(new CsvImporter(), input(csv.toString()), false, new PersonImportPipeline.Listener() {
+            @Override
+            public void chunkSaved(int chunkRows, List<Person> people) {
+                saved.addAll(people);
+            }
+
+            @Override
+            public void rowFailed(long row, String message) {
+                errors.put(row, message);
+            }
+        });
+
+        assertEquals(20, processed);
+        assertEquals(18, saved.size());
+        assertEquals(Map.of(6L, "gender must have at most 6 characters", 13L, "last_name is required"), errors);
+        assertEquals(18, meterRegistry.get("import.pipeline.rows").tag("result", "imported").counter().count());
+        assertEquals(2, meterRegistry.get("import.pipeline.rows").tag("result", "failed").counter().count());
+        assertEquals(7, meterRegistry.get("import.pipeline.stage").tag("stage", "map").timer().count());
+        assertEquals(7, meterRegistry.get("import.pipeline.stage").tag("stage", "write").timer().count());
+    }
+
+    @Test
+    void runSavesChunksInFileOrderWithSeveralMappers() throws Exception {
+        when(personImportService.savePeopleOrRows(anyList(), anyList(), anyBoolean(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        StringBuilder csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 1; i <= 300; i++) csv.append("First").append(i).append(",Last,Street,Male\n");
+        List<String> saved = new ArrayList<>();
+
+        pipeline.run(new CsvImporter(), input(csv.toString()), false, new PersonImportPipeline.Listener() {
+            @Override
+            public void chunkSaved(int chunkRows, List<Person> people) {
+                people.forEach(person -> saved.add(person.getFirstName()));
+            }
+
+            @Override
+            public void rowFailed(long row, String message) {
+            }
+        });
+
+        assertEquals(IntStream.rangeClosed(1, 300).mapToObj(i -> "First" + i).toList(), saved);
+    }
+
+    @Test
+    void runStopsAllStagesWhenTheListenerFails() {
+        when(personImportService.savePeopleOrRows(anyList(), anyList(), anyBoolean(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        StringBuilder csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 1; i <= 300; i++) {
+            csv.append("First").append(i).append(",Last,Street,").append(i == 2 ? "" : "Male").append('\n');
+        }
+
+        var error = assertThrows(BadRequestException.class, () -> pipeline.run(new CsvImporter(), input(csv.toString()), false,
+                new PersonImportPipeline.Listener() {
+                    @Override
+                    public void chunkSaved(int chunkRows, List<Person> people) {
+                    }
+
+                    @Override
+                    public void rowFailed(long row, String message) {
+                        throw new BadRequestException("Invalid row " + row);
+                    }
+                }));
+
+        assertEquals("Invalid row 3", error.getMessage());
+    }
+
+    @Test
+    void runWritesEveryChunkInUpsertModeWhenRequested() throws Exception {
+        when(personImportService.savePeopleOrRows(anyList(), anyList(), anyBoolean(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        String csv = "first_name,last_name,address,gender\nAda,Lovelace,London,Female\nAda,Lovelace,London,Female\n";
+
+        long processed = pipeline.run(new CsvImporter(), input(csv), true, mock(PersonImportPipeline.Listener.class));
+
+        assertEquals(2, processed);
+        verify(personImportService).savePeopleOrRows(anyList(), eq(List.of(2L, 3L)), eq(true), any());
+        verify(personImportService, never()).savePeopleOrRows(anyList(), anyList(), eq(false), any());
+    }
+
+    @Test
+    void runPropagatesParserFailures() {
+        var failure = assertThrows(Exception.class, () -> pipeline.run(
+                (inputStream, chunkSize, chunkConsumer) -> {
+                    throw new IllegalStateException("corrupt file");
+                },
+                input(""), false, mock(PersonImportPipeline.Listener.class)));
+
+        assertEquals("corrupt file", failure.getMessage());
+        verify(personImportService, never()).savePeopleOrRows(anyList(), anyList(), anyBoolean(), any());
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,9 +1,14 @@
 package com.murilodias03.bookstore.unittests.services;
 
 import com.murilodias03.bookstore.data.dto.PersonDTO;
+import com.murilodias03.bookstore.exceptions.BadRequestException;
 import com.murilodias03.bookstore.exceptions.RequeriedObjectsIsNullException;
+import com.murilodias03.bookstore.file.importer.contract.FileImporter;
+import com.murilodias03.bookstore.file.importer.factory.FileImporterFactory;
 import com.murilodias03.bookstore.model.Person;
 import com.murilodias03.bookstore.repositories.PersonRepository;
+import com.murilodias03.bookstore.search.CatalogSearchIndex;
+import com.murilodias03.bookstore.services.PersonImportPipeline;
 import com.murilodias03.bookstore.services.PersonService;
 import com.murilodias03.bookstore.unittests.mapper.mocks.MockPerson;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +18,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +39,18 @@ class PersonServiceTest {
     @Mock
     PersonRepository personRepository;
 
+    @Mock
+    CatalogSearchIndex searchIndex;
+
+    @Mock
+    FileImporterFactory fileImporter;
+
+    @Mock
+    PersonImportPipeline importPipeline;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         input = new MockPerson();
@@ -360,6 +379,55 @@ class PersonServiceTest {
         personService.delete(1L);
         verify(personRepository, times(1)).findById(anyLong());
         verify(personRepository, times(1)).delete(any(Person.class));
+        verify(searchIndex, times(1)).removePerson(1L);
         verifyNoMoreInteractions(personRepository);
     }
+
+    @Test
+    void createWithFileReturnsTheSavedPeople() throws Exception {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        when(fileImporter.getImporter("people.csv")).thenReturn(mock(FileImporter.class));
+        doAnswer(invocation -> {
+            PersonImportPipeline.Listener listener = invocation.getArgument(3);
+            listener.chunkSaved(1, List.of(person));
+            return 1L;
+        }).when(importPipeline).run(any(), any(), eq(false), any());
+
+        List<PersonDTO> people = personService.createWithFile(
+                new MockMultipartFile("file", "people.csv", "text/csv", "rows".getBytes()), false);
+
+        assertEquals(1, people.size());
+        assertEquals(1L, people.get(0).getId());
+        verify(searchIndex).indexPerson(person);
+    }
+
+    @Test
+    void createWithFileRollsBackTheWholeFileOnAnInvalidRow() throws Exception {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        when(fileImporter.getImporter("people.csv")).thenReturn(mock(FileImporter.class));
+        doAnswer(invocation -> {
+            PersonImportPipeline.Listener listener = invocation.getArgument(3);
+            listener.chunkSaved(3, List.of(person));
+            listener.rowFailed(5, "Gender must be Male or Female");
+            return 3L;
+        }).when(importPipeline).run(any(), any(), eq(false), any());
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> personService.createWithFile(
+                new MockMultipartFile("file", "people.csv", "text/csv", "rows".getBytes()), false));
+
+        assertEquals("Invalid row 5: Gender must be Male or Female. Nothing was imported!", exception.getMessage());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void createWithFileRejectsUnsupportedFormatsAsBadRequest() throws Exception {
+        when(fileImporter.getImporter("people.txt")).thenThrow(new BadRequestException("Invalid file format!"));
+
+        assertThrows(BadRequestException.class, () -> personService.createWithFile(
+                new MockMultipartFile("file", "people.txt", "text/plain", "rows".getBytes()), false));
+    }
 }
\ No newline at end of file